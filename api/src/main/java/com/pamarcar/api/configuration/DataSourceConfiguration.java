@@ -0,0 +1,76 @@
+package com.pamarcar.api.configuration;
+
+import com.pamarcar.api.util.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfiguration {
+
+	// Short enough that a replica going down does not stall the reads routed to it
+	private static final long REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2).toMillis();
+
+	// Same pool Spring Boot would build from spring.datasource.*, migrations always run against it
+	@Bean
+	@FlywayDataSource
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+
+	}
+
+	@Bean
+	public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource, DataSourceProperties properties, @Value("${datasource.replicas.urls:}") List<String> urls, @Value("${datasource.replicas.health-interval:PT5S}") Duration interval) {
+
+		List<DataSource> replicas = new ArrayList<>();
+
+		for (String url : urls) {
+
+			if (url.isBlank()) {
+				continue;
+			}
+
+			HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url.strip()).build();
+
+			replica.setPoolName("replica-" + (replicas.size() + 1));
+			replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+			replica.setReadOnly(true);
+			replica.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT);
+			// A replica that is down at startup must not keep the application from starting
+			replica.setInitializationFailTimeout(-1);
+
+			replicas.add(replica);
+
+		}
+
+		return new ReplicaRouter(primaryDataSource, replicas, interval);
+
+	}
+
+	// The physical connection is only fetched on first use, once @Transactional(readOnly = true) has marked it read-only
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouter replicaRouter) {
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+
+		dataSource.setReadOnlyDataSource(replicaRouter);
+
+		return dataSource;
+
+	}
+
+}
@@ -1,18 +1,173 @@
 package com.pamarcar.api.configuration;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfiguration {
 
 	public static final String CREATE_ACCESS_QUEUE = "CREATE_ACCESS_QUEUE";
+	public static final String REGISTRATION_COMPLETE_QUEUE = "REGISTRATION_COMPLETE_QUEUE";
+	public static final String TOKEN_REVOCATION_EXCHANGE = "TOKEN_REVOCATION_EXCHANGE";
+	public static final String CACHE_INVALIDATION_EXCHANGE = "CACHE_INVALIDATION_EXCHANGE";
+	public static final String DEAD_LETTER_EXCHANGE = "DEAD_LETTER_EXCHANGE";
+	public static final String DEAD_LETTER_QUEUE = "DEAD_LETTER_QUEUE";
+	public static final String PARKING_QUEUE = "PARKING_QUEUE";
+
+	// Queues whose rejected messages are retried and finally parked
+	public static final List<String> WORK_QUEUES = List.of(CREATE_ACCESS_QUEUE, REGISTRATION_COMPLETE_QUEUE);
+
+	// Delay before each retry: 10 s, 40 s, 160 s, 640 s
+	public static final Duration INITIAL_RETRY_DELAY = Duration.ofSeconds(10);
+	public static final int RETRY_DELAY_FACTOR = 4;
+	public static final int RETRY_ATTEMPTS = 4;
+
+	public static String retryQueue(String queue, int attempt) {
+
+		return queue + ".RETRY." + attempt;
+
+	}
+
+	public static Duration retryDelay(int attempt) {
+
+		return INITIAL_RETRY_DELAY.multipliedBy((long) Math.pow(RETRY_DELAY_FACTOR, attempt));
+
+	}
 
+	// Consumers reject (requeue=false) what they cannot process and the broker moves it to the dead letter exchange
 	@Bean
 	public Queue travelerRegistryQueue() {
 
-		return new Queue(CREATE_ACCESS_QUEUE, true);
+		return QueueBuilder.durable(CREATE_ACCESS_QUEUE).deadLetterExchange(DEAD_LETTER_EXCHANGE).build();
+
+	}
+
+	@Bean
+	public Queue registrationCompleteQueue() {
+
+		return QueueBuilder.durable(REGISTRATION_COMPLETE_QUEUE).deadLetterExchange(DEAD_LETTER_EXCHANGE).build();
+
+	}
+
+	@Bean
+	public FanoutExchange deadLetterExchange() {
+
+		return new FanoutExchange(DEAD_LETTER_EXCHANGE, true, false);
+
+	}
+
+	@Bean
+	public Queue deadLetterQueue() {
+
+		return QueueBuilder.durable(DEAD_LETTER_QUEUE).build();
+
+	}
+
+	@Bean
+	public Binding deadLetterBinding(FanoutExchange deadLetterExchange, Queue deadLetterQueue) {
+
+		return BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange);
+
+	}
+
+	@Bean
+	public Queue parkingQueue() {
+
+		return QueueBuilder.durable(PARKING_QUEUE).build();
+
+	}
+
+	// Nobody consumes the retry queues, messages wait out the TTL and expire back into their work queue
+	@Bean
+	public Declarables retryQueues() {
+
+		List<Queue> queues = new ArrayList<>();
+
+		for (String queue : WORK_QUEUES) {
+
+			for (int attempt = 0; attempt < RETRY_ATTEMPTS; attempt++) {
+
+				queues.add(QueueBuilder.durable(retryQueue(queue, attempt))
+						.ttl((int) retryDelay(attempt).toMillis())
+						.deadLetterExchange("")
+						.deadLetterRoutingKey(queue)
+						.build());
+
+			}
+
+		}
+
+		return new Declarables(queues);
+
+	}
+
+	@Bean
+	public FanoutExchange tokenRevocationExchange() {
+
+		return new FanoutExchange(TOKEN_REVOCATION_EXCHANGE, true, false);
+
+	}
+
+	// One exclusive, auto-delete queue per API node so every node receives every revocation
+	@Bean
+	public Queue tokenRevocationQueue() {
+
+		return new AnonymousQueue();
+
+	}
+
+	@Bean
+	public Binding tokenRevocationBinding(FanoutExchange tokenRevocationExchange, Queue tokenRevocationQueue) {
+
+		return BindingBuilder.bind(tokenRevocationQueue).to(tokenRevocationExchange);
+
+	}
+
+	@Bean
+	public FanoutExchange cacheInvalidationExchange() {
+
+		return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE, true, false);
+
+	}
+
+	// Same per node setup as revocations, every node drops its own copy of the changed data
+	@Bean
+	public Queue cacheInvalidationQueue() {
+
+		return new AnonymousQueue();
+
+	}
+
+	@Bean
+	public Binding cacheInvalidationBinding(FanoutExchange cacheInvalidationExchange, Queue cacheInvalidationQueue) {
+
+		return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+
+	}
+
+	// A second queue on the same exchange, so user evictions are not competing with the reference data listener
+	@Bean
+	public Queue userInvalidationQueue() {
+
+		return new AnonymousQueue();
+
+	}
+
+	@Bean
+	public Binding userInvalidationBinding(FanoutExchange cacheInvalidationExchange, Queue userInvalidationQueue) {
+
+		return BindingBuilder.bind(userInvalidationQueue).to(cacheInvalidationExchange);
 
 	}
 
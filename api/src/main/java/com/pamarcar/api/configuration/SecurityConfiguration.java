@@ -1,7 +1,19 @@
 package com.pamarcar.api.configuration;
 
 import com.pamarcar.api.service.AuthenticationService;
-import io.jsonwebtoken.Jwts;
+import com.pamarcar.api.service.RefreshTokenService;
+import com.pamarcar.api.service.RevocationService;
+import com.pamarcar.api.util.KeyRing;
+import com.pamarcar.api.util.LoginExecutor;
+import com.pamarcar.api.util.PasswordCostCalibrator;
+import com.pamarcar.api.util.RateLimitFilter;
+import com.pamarcar.api.util.TokenCache;
+import com.pamarcar.api.util.TokenIssuer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
@@ -16,6 +28,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,7 +36,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
-import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -34,30 +49,49 @@ import java.util.Map;
 @EnableMethodSecurity
 public class SecurityConfiguration {
 
-	private static final SecretKey key = Jwts.SIG.HS512.key().build();
+	private static final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
 
 	private final AuthenticationService auth;
+	private final TokenCache tokens;
+	private final LoginExecutor logins;
+	private final RevocationService revocations;
 
-	public SecurityConfiguration(AuthenticationService auth) {
+	public SecurityConfiguration(AuthenticationService auth, TokenCache tokens, LoginExecutor logins, RevocationService revocations) {
 		this.auth = auth;
+		this.tokens = tokens;
+		this.logins = logins;
+		this.revocations = revocations;
 	}
 
 	@Bean
-	public AuthenticationManager authManager() {
+	public AuthenticationManager authManager(PasswordEncoder passwordEncoder) {
 		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
 		provider.setUserDetailsService(auth);
-		provider.setPasswordEncoder(passwordEncoder());
+		provider.setUserDetailsPasswordService(auth);
+		provider.setPasswordEncoder(passwordEncoder);
 		return provider::authenticate;
 	}
 
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authManager) throws Exception {
+	public SecurityFilterChain securityFilterChain(
+			HttpSecurity http,
+			AuthenticationManager authManager,
+			KeyRing keyRing,
+			TokenIssuer issuer,
+			RefreshTokenService refreshTokens,
+			@Value("${security.rate-limit.rules:}") String rateLimits
+	) throws Exception {
 		http
 				.csrf(AbstractHttpConfigurer::disable)
 				.cors(Customizer.withDefaults())
-				.authorizeHttpRequests(authz -> authz.anyRequest().permitAll())
-				.addFilterBefore(new com.pamarcar.api.util.AuthenticationFilter(authManager, tokenSignKey()), UsernamePasswordAuthenticationFilter.class)
-				.addFilterBefore(new com.pamarcar.api.util.AuthorizationFilter(authManager, tokenSignKey()), UsernamePasswordAuthenticationFilter.class)
+				// Metrics expose queue depths, rate limits, caches and the outbox, so only admins may read them
+				.authorizeHttpRequests(authz -> authz
+						.requestMatchers(EndpointRequest.to(MetricsEndpoint.class)).hasAuthority("ADMIN")
+						.anyRequest().permitAll())
+				// Authorization, then rate limiting keyed on the verified user, then login
+				.addFilterBefore(new com.pamarcar.api.util.AuthorizationFilter(authManager, keyRing, tokens, revocations), UsernamePasswordAuthenticationFilter.class)
+				.addFilterAfter(new RateLimitFilter(RateLimitFilter.parse(rateLimits), com.pamarcar.api.util.AuthenticationFilter.LOGIN), com.pamarcar.api.util.AuthorizationFilter.class)
+				.addFilterAfter(new com.pamarcar.api.util.AuthenticationFilter(authManager, issuer, logins, refreshTokens), RateLimitFilter.class)
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
 		return http.build();
@@ -77,8 +111,23 @@ public class SecurityConfiguration {
 	}
 
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(
+			@Value("${security.password.cost:0}") int cost,
+			@Value("${security.password.target-ms:250}") long targetMs
+	) {
+
+		int strength = cost > 0 ? cost : PasswordCostCalibrator.calibrate(Duration.ofMillis(targetMs));
+
+		Map<String, PasswordEncoder> encoders = new HashMap<>();
+		encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+
+		// Hashes stored before the {bcrypt} prefix was introduced are plain BCrypt strings
+		encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+		return encoder;
+
 	}
 
 	@Bean
@@ -90,8 +139,17 @@ public class SecurityConfiguration {
 	}
 
 	@Bean
-	public SecretKey tokenSignKey() {
-		return key;
+	public KeyRing keyRing(@Value("${security.jwt.key-ring:}") String path) throws IOException {
+
+		if (path.isBlank()) {
+
+			log.warn("No JWT key ring configured, tokens will only be valid on this instance until it restarts");
+			return KeyRing.generate();
+
+		}
+
+		return KeyRing.load(Path.of(path));
+
 	}
 
 }
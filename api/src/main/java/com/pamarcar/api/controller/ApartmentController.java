@@ -2,9 +2,12 @@ package com.pamarcar.api.controller;
 
 import com.pamarcar.api.handler.ResponseHandler;
 import com.pamarcar.api.model.Apartment;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Platform;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.service.ApartmentService;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
 import com.pamarcar.api.util.SortUtil;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,8 @@ import org.springframework.data.domain.*;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -42,9 +47,18 @@ public class ApartmentController {
 			@RequestParam(name = "page", required = false, defaultValue = "0") int page,
 			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
 			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
-			@RequestParam(name = "id", required = false, defaultValue = "") Long id
+			@RequestParam(name = "id", required = false, defaultValue = "") Long id,
+			@RequestParam(name = "count", required = false, defaultValue = "exact") String count
 	) {
 
+		CountEstimator.Mode mode = CountEstimator.Mode.of(count);
+
+		if (mode == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown count mode " + count + ", expected exact, estimate or none", 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
 		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
 
 		ExampleMatcher matcher = ExampleMatcher
@@ -57,31 +71,96 @@ public class ApartmentController {
 				matcher
 		);
 
-		Result<Page<Apartment>> result = apartments.get(page, size, Sort.by(criteria), filter);
+		Result<Slice<Apartment>> result = apartments.get(page, size, Sort.by(criteria), filter, mode == CountEstimator.Mode.EXACT);
+		HttpHeaders headers = new HttpHeaders();
 		ArrayList<Link> links = new ArrayList<>();
 
 		if (result.getResult() != null) {
 
-			Page<Apartment> records = result.getResult();
+			Slice<Apartment> records = result.getResult();
 			Pageable metadata = records.getPageable();
 
-			Link self = linkTo(methodOn(ApartmentController.class).getApartments(page, size, sort, id)).withSelfRel();
-			Link first = linkTo(methodOn(ApartmentController.class).getApartments(metadata.first().getPageNumber(), size, sort, id)).withRel(IanaLinkRelations.FIRST);
-			Link last = linkTo(methodOn(ApartmentController.class).getApartments(records.getTotalPages() - 1, size, sort, id)).withRel(IanaLinkRelations.LAST);
-			Link next = linkTo(methodOn(ApartmentController.class).getApartments(metadata.next().getPageNumber(), size, sort, id)).withRel(IanaLinkRelations.NEXT);
-			Link previous = linkTo(methodOn(ApartmentController.class).getApartments(metadata.previousOrFirst().getPageNumber(), size, sort, id)).withRel(IanaLinkRelations.PREVIOUS);
+			Link self = linkTo(methodOn(ApartmentController.class).getApartments(page, size, sort, id, count)).withSelfRel();
+			Link first = linkTo(methodOn(ApartmentController.class).getApartments(metadata.first().getPageNumber(), size, sort, id, count)).withRel(IanaLinkRelations.FIRST);
+			Link next = linkTo(methodOn(ApartmentController.class).getApartments(metadata.next().getPageNumber(), size, sort, id, count)).withRel(IanaLinkRelations.NEXT);
+			Link previous = linkTo(methodOn(ApartmentController.class).getApartments(metadata.previousOrFirst().getPageNumber(), size, sort, id, count)).withRel(IanaLinkRelations.PREVIOUS);
 			Link one = linkTo(methodOn(ApartmentController.class).getApartment(null)).withRel(relationProvider.getItemResourceRelFor(Apartment.class));
 
 			links.add(self);
 			links.add(first);
-			links.add(last);
-			links.add(next);
+
+			if (records instanceof Page<Apartment> counted) {
+
+				links.add(linkTo(methodOn(ApartmentController.class).getApartments(counted.getTotalPages() - 1, size, sort, id, count)).withRel(IanaLinkRelations.LAST));
+				headers.set(ResponseHandler.TOTAL_COUNT, String.valueOf(counted.getTotalElements()));
+
+			} else if (mode == CountEstimator.Mode.ESTIMATE) {
+
+				headers.set(ResponseHandler.ESTIMATED_TOTAL_COUNT, String.valueOf(apartments.estimate(filter)));
+
+			}
+
+			if (records.hasNext()) {
+
+				links.add(next);
+
+			}
+
 			links.add(previous);
 			links.add(one);
 
 		}
 
-		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, result.getStatus());
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, headers, result.getStatus());
+
+	}
+
+	@GetMapping(params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getApartmentsByCursor(
+			@RequestParam(name = "cursor") String cursor,
+			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
+			@RequestParam(name = "id", required = false, defaultValue = "") Long id
+	) {
+
+		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
+
+		ExampleMatcher matcher = ExampleMatcher
+				.matchingAll()
+				.withIgnoreCase()
+				.withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+
+		Example<Apartment> filter = Example.of(
+				new Apartment().setId(id),
+				matcher
+		);
+
+		Result<Window<Apartment>> result = apartments.get(cursor, size, Sort.by(criteria), filter);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			String next = CursorUtil.next(result.getResult());
+
+			Link self = linkTo(methodOn(ApartmentController.class).getApartmentsByCursor(cursor, size, sort, id)).withSelfRel();
+			Link first = linkTo(methodOn(ApartmentController.class).getApartmentsByCursor("", size, sort, id)).withRel(IanaLinkRelations.FIRST);
+			Link one = linkTo(methodOn(ApartmentController.class).getApartment(null)).withRel(relationProvider.getItemResourceRelFor(Apartment.class));
+
+			links.add(self);
+			links.add(first);
+
+			if (next != null) {
+
+				links.add(linkTo(methodOn(ApartmentController.class).getApartmentsByCursor(next, size, sort, id)).withRel(IanaLinkRelations.NEXT));
+
+			}
+
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult() == null ? null : result.getResult().getContent(), links, result.getStatus());
 
 	}
 
@@ -106,4 +185,25 @@ public class ApartmentController {
 
 	}
 
+	@GetMapping(params = {"ids", "!cursor"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getApartmentsById(@RequestParam(name = "ids") List<Long> ids) {
+
+		Result<List<Lookup<Apartment>>> result = apartments.get(ids);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link self = linkTo(methodOn(ApartmentController.class).getApartmentsById(ids)).withSelfRel();
+			Link one = linkTo(methodOn(ApartmentController.class).getApartment(null)).withRel(relationProvider.getItemResourceRelFor(Apartment.class));
+
+			links.add(self);
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
 }
@@ -2,10 +2,15 @@ package com.pamarcar.api.controller;
 
 import com.pamarcar.api.handler.ResponseHandler;
 import com.pamarcar.api.model.Booking;
+import com.pamarcar.api.model.BookingSummary;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.OnBookingCreate;
 import com.pamarcar.api.model.Platform;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.service.BookingService;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.ExportWriter;
 import com.pamarcar.api.util.SortUtil;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +18,15 @@ import org.springframework.data.domain.*;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,9 +54,18 @@ public class BookingController {
 			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
 			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
 			@RequestParam(name = "id", required = false, defaultValue = "") Long id,
-			@RequestParam(name = "platformId", required = false, defaultValue = "") String platformId
+			@RequestParam(name = "platformId", required = false, defaultValue = "") String platformId,
+			@RequestParam(name = "count", required = false, defaultValue = "exact") String count
 	) {
 
+		CountEstimator.Mode mode = CountEstimator.Mode.of(count);
+
+		if (mode == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown count mode " + count + ", expected exact, estimate or none", 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
 		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
 
 		ExampleMatcher matcher = ExampleMatcher
@@ -60,31 +78,97 @@ public class BookingController {
 				matcher
 		);
 
-		Result<Page<Booking>> result = bookings.get(page, size, Sort.by(criteria), filter);
+		Result<Slice<BookingSummary>> result = bookings.get(page, size, Sort.by(criteria), filter, mode == CountEstimator.Mode.EXACT);
+		HttpHeaders headers = new HttpHeaders();
 		ArrayList<Link> links = new ArrayList<>();
 
 		if (result.getResult() != null) {
 
-			Page<Booking> records = result.getResult();
+			Slice<BookingSummary> records = result.getResult();
 			Pageable metadata = records.getPageable();
 
-			Link self = linkTo(methodOn(BookingController.class).getBookings(page, size, sort, id, platformId)).withSelfRel();
-			Link first = linkTo(methodOn(BookingController.class).getBookings(metadata.first().getPageNumber(), size, sort, id, platformId)).withRel(IanaLinkRelations.FIRST);
-			Link last = linkTo(methodOn(BookingController.class).getBookings(records.getTotalPages() - 1, size, sort, id, platformId)).withRel(IanaLinkRelations.LAST);
-			Link next = linkTo(methodOn(BookingController.class).getBookings(metadata.next().getPageNumber(), size, sort, id, platformId)).withRel(IanaLinkRelations.NEXT);
-			Link previous = linkTo(methodOn(BookingController.class).getBookings(metadata.previousOrFirst().getPageNumber(), size, sort, id, platformId)).withRel(IanaLinkRelations.PREVIOUS);
+			Link self = linkTo(methodOn(BookingController.class).getBookings(page, size, sort, id, platformId, count)).withSelfRel();
+			Link first = linkTo(methodOn(BookingController.class).getBookings(metadata.first().getPageNumber(), size, sort, id, platformId, count)).withRel(IanaLinkRelations.FIRST);
+			Link next = linkTo(methodOn(BookingController.class).getBookings(metadata.next().getPageNumber(), size, sort, id, platformId, count)).withRel(IanaLinkRelations.NEXT);
+			Link previous = linkTo(methodOn(BookingController.class).getBookings(metadata.previousOrFirst().getPageNumber(), size, sort, id, platformId, count)).withRel(IanaLinkRelations.PREVIOUS);
 			Link one = linkTo(methodOn(BookingController.class).getBooking(null)).withRel(relationProvider.getItemResourceRelFor(Booking.class));
 
 			links.add(self);
 			links.add(first);
-			links.add(last);
-			links.add(next);
+
+			if (records instanceof Page<BookingSummary> counted) {
+
+				links.add(linkTo(methodOn(BookingController.class).getBookings(counted.getTotalPages() - 1, size, sort, id, platformId, count)).withRel(IanaLinkRelations.LAST));
+				headers.set(ResponseHandler.TOTAL_COUNT, String.valueOf(counted.getTotalElements()));
+
+			} else if (mode == CountEstimator.Mode.ESTIMATE) {
+
+				headers.set(ResponseHandler.ESTIMATED_TOTAL_COUNT, String.valueOf(bookings.estimate(filter)));
+
+			}
+
+			if (records.hasNext()) {
+
+				links.add(next);
+
+			}
+
 			links.add(previous);
 			links.add(one);
 
 		}
 
-		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, result.getStatus());
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, headers, result.getStatus());
+
+	}
+
+	@GetMapping(params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getBookingsByCursor(
+			@RequestParam(name = "cursor") String cursor,
+			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
+			@RequestParam(name = "id", required = false, defaultValue = "") Long id,
+			@RequestParam(name = "platformId", required = false, defaultValue = "") String platformId
+	) {
+
+		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
+
+		ExampleMatcher matcher = ExampleMatcher
+				.matchingAll()
+				.withIgnoreCase()
+				.withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+
+		Example<Booking> filter = Example.of(
+				new Booking().setId(id).setPlatformId(platformId),
+				matcher
+		);
+
+		Result<Window<Booking>> result = bookings.get(cursor, size, Sort.by(criteria), filter);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			String next = CursorUtil.next(result.getResult());
+
+			Link self = linkTo(methodOn(BookingController.class).getBookingsByCursor(cursor, size, sort, id, platformId)).withSelfRel();
+			Link first = linkTo(methodOn(BookingController.class).getBookingsByCursor("", size, sort, id, platformId)).withRel(IanaLinkRelations.FIRST);
+			Link one = linkTo(methodOn(BookingController.class).getBooking(null)).withRel(relationProvider.getItemResourceRelFor(Booking.class));
+
+			links.add(self);
+			links.add(first);
+
+			if (next != null) {
+
+				links.add(linkTo(methodOn(BookingController.class).getBookingsByCursor(next, size, sort, id, platformId)).withRel(IanaLinkRelations.NEXT));
+
+			}
+
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult() == null ? null : result.getResult().getContent(), links, result.getStatus());
 
 	}
 
@@ -109,6 +193,49 @@ public class BookingController {
 
 	}
 
+	@GetMapping(params = {"ids", "!cursor"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getBookingsById(@RequestParam(name = "ids") List<Long> ids) {
+
+		Result<List<Lookup<Booking>>> result = bookings.get(ids);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link self = linkTo(methodOn(BookingController.class).getBookingsById(ids)).withSelfRel();
+			Link one = linkTo(methodOn(BookingController.class).getBooking(null)).withRel(relationProvider.getItemResourceRelFor(Booking.class));
+
+			links.add(self);
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
+	@GetMapping(path = "export")
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<?> exportBookings(@RequestParam(name = "format", required = false, defaultValue = "ndjson") String format) {
+
+		ExportWriter.Format type = ExportWriter.Format.of(format);
+
+		if (type == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown export format " + format, 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
+		// Written straight to the response, a row at a time
+		StreamingResponseBody body = out -> bookings.export(type, out);
+
+		return ResponseEntity.ok()
+				.contentType(type.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(type.filename("bookings")).build().toString())
+				.body(body);
+
+	}
+
 	@PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 	@PreAuthorize("hasAuthority('ADMIN')")
 	ResponseEntity<Object> createBooking(@Validated(OnBookingCreate.class) @RequestBody Booking booking) {
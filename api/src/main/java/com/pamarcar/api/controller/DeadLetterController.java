@@ -0,0 +1,62 @@
+package com.pamarcar.api.controller;
+
+import com.pamarcar.api.handler.ResponseHandler;
+import com.pamarcar.api.model.ParkedMessage;
+import com.pamarcar.api.model.Result;
+import com.pamarcar.api.service.DeadLetterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("dead-letters")
+public class DeadLetterController {
+
+	private final DeadLetterService deadLetters;
+
+	@Autowired
+	public DeadLetterController(DeadLetterService deadLetters) {
+		this.deadLetters = deadLetters;
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getParked(@RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+
+		Result<List<ParkedMessage>> result = deadLetters.getParked(size);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link self = linkTo(methodOn(DeadLetterController.class).getParked(size)).withSelfRel();
+			Link replay = linkTo(methodOn(DeadLetterController.class).replay(size)).withRel("replay");
+
+			links.add(self);
+			links.add(replay);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
+	@PostMapping(path = "replay", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> replay(@RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+
+		Result<List<ParkedMessage>> result = deadLetters.replay(size);
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), new ArrayList<Link>(), result.getStatus());
+
+	}
+
+}
@@ -1,9 +1,12 @@
 package com.pamarcar.api.controller;
 
 import com.pamarcar.api.handler.ResponseHandler;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Platform;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.service.PlatformService;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
 import com.pamarcar.api.util.SortUtil;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +14,8 @@ import org.springframework.data.domain.*;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -41,9 +46,18 @@ public class PlatformController {
 			@RequestParam(name = "page", required = false, defaultValue = "0") int page,
 			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
 			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
-			@RequestParam(name = "name", required = false, defaultValue = "") String name
+			@RequestParam(name = "name", required = false, defaultValue = "") String name,
+			@RequestParam(name = "count", required = false, defaultValue = "exact") String count
 	) {
 
+		CountEstimator.Mode mode = CountEstimator.Mode.of(count);
+
+		if (mode == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown count mode " + count + ", expected exact, estimate or none", 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
 		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
 
 		ExampleMatcher matcher = ExampleMatcher
@@ -56,31 +70,96 @@ public class PlatformController {
 				matcher
 		);
 
-		Result<Page<Platform>> result = platforms.get(page, size, Sort.by(criteria), filter);
+		Result<Slice<Platform>> result = platforms.get(page, size, Sort.by(criteria), filter, mode == CountEstimator.Mode.EXACT);
+		HttpHeaders headers = new HttpHeaders();
 		ArrayList<Link> links = new ArrayList<>();
 
 		if (result.getResult() != null) {
 
-			Page<Platform> records = result.getResult();
+			Slice<Platform> records = result.getResult();
 			Pageable metadata = records.getPageable();
 
-			Link self = linkTo(methodOn(PlatformController.class).getPlatforms(page, size, sort, name)).withSelfRel();
-			Link first = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.first().getPageNumber(), size, sort, name)).withRel(IanaLinkRelations.FIRST);
-			Link last = linkTo(methodOn(PlatformController.class).getPlatforms(records.getTotalPages() - 1, size, sort, name)).withRel(IanaLinkRelations.LAST);
-			Link next = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.next().getPageNumber(), size, sort, name)).withRel(IanaLinkRelations.NEXT);
-			Link previous = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.previousOrFirst().getPageNumber(), size, sort, name)).withRel(IanaLinkRelations.PREVIOUS);
+			Link self = linkTo(methodOn(PlatformController.class).getPlatforms(page, size, sort, name, count)).withSelfRel();
+			Link first = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.first().getPageNumber(), size, sort, name, count)).withRel(IanaLinkRelations.FIRST);
+			Link next = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.next().getPageNumber(), size, sort, name, count)).withRel(IanaLinkRelations.NEXT);
+			Link previous = linkTo(methodOn(PlatformController.class).getPlatforms(metadata.previousOrFirst().getPageNumber(), size, sort, name, count)).withRel(IanaLinkRelations.PREVIOUS);
 			Link one = linkTo(methodOn(PlatformController.class).getPlatform(null)).withRel(relationProvider.getItemResourceRelFor(Platform.class));
 
 			links.add(self);
 			links.add(first);
-			links.add(last);
-			links.add(next);
+
+			if (records instanceof Page<Platform> counted) {
+
+				links.add(linkTo(methodOn(PlatformController.class).getPlatforms(counted.getTotalPages() - 1, size, sort, name, count)).withRel(IanaLinkRelations.LAST));
+				headers.set(ResponseHandler.TOTAL_COUNT, String.valueOf(counted.getTotalElements()));
+
+			} else if (mode == CountEstimator.Mode.ESTIMATE) {
+
+				headers.set(ResponseHandler.ESTIMATED_TOTAL_COUNT, String.valueOf(platforms.estimate(filter)));
+
+			}
+
+			if (records.hasNext()) {
+
+				links.add(next);
+
+			}
+
 			links.add(previous);
 			links.add(one);
 
 		}
 
-		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, result.getStatus());
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, headers, result.getStatus());
+
+	}
+
+	@GetMapping(params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getPlatformsByCursor(
+			@RequestParam(name = "cursor") String cursor,
+			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
+			@RequestParam(name = "name", required = false, defaultValue = "") String name
+	) {
+
+		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
+
+		ExampleMatcher matcher = ExampleMatcher
+				.matchingAll()
+				.withIgnoreCase()
+				.withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+
+		Example<Platform> filter = Example.of(
+				new Platform().setName(name),
+				matcher
+		);
+
+		Result<Window<Platform>> result = platforms.get(cursor, size, Sort.by(criteria), filter);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			String next = CursorUtil.next(result.getResult());
+
+			Link self = linkTo(methodOn(PlatformController.class).getPlatformsByCursor(cursor, size, sort, name)).withSelfRel();
+			Link first = linkTo(methodOn(PlatformController.class).getPlatformsByCursor("", size, sort, name)).withRel(IanaLinkRelations.FIRST);
+			Link one = linkTo(methodOn(PlatformController.class).getPlatform(null)).withRel(relationProvider.getItemResourceRelFor(Platform.class));
+
+			links.add(self);
+			links.add(first);
+
+			if (next != null) {
+
+				links.add(linkTo(methodOn(PlatformController.class).getPlatformsByCursor(next, size, sort, name)).withRel(IanaLinkRelations.NEXT));
+
+			}
+
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult() == null ? null : result.getResult().getContent(), links, result.getStatus());
 
 	}
 
@@ -105,4 +184,25 @@ public class PlatformController {
 
 	}
 
+	@GetMapping(params = {"ids", "!cursor"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getPlatformsById(@RequestParam(name = "ids") List<Long> ids) {
+
+		Result<List<Lookup<Platform>>> result = platforms.get(ids);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link self = linkTo(methodOn(PlatformController.class).getPlatformsById(ids)).withSelfRel();
+			Link one = linkTo(methodOn(PlatformController.class).getPlatform(null)).withRel(relationProvider.getItemResourceRelFor(Platform.class));
+
+			links.add(self);
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
 }
@@ -0,0 +1,74 @@
+package com.pamarcar.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pamarcar.api.handler.ResponseHandler;
+import com.pamarcar.api.model.Result;
+import com.pamarcar.api.model.Revocation;
+import com.pamarcar.api.model.Session;
+import com.pamarcar.api.model.TokenPrincipal;
+import com.pamarcar.api.service.RefreshTokenService;
+import com.pamarcar.api.service.RevocationService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+
+@RestController
+@RequestMapping("sessions")
+public class SessionController {
+
+	private final RevocationService revocations;
+	private final RefreshTokenService refreshTokens;
+
+	@Autowired
+	public SessionController(RevocationService revocations, RefreshTokenService refreshTokens) {
+		this.revocations = revocations;
+		this.refreshTokens = refreshTokens;
+	}
+
+	@PostMapping(path = "refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<Object> refresh(@RequestBody JsonNode body, HttpServletResponse response) {
+
+		Result<Session> result = refreshTokens.refresh(body.path("refreshToken").textValue());
+
+		if (result.getResult() != null) {
+
+			response.addHeader("Authentication", String.format("Bearer %s", result.getResult().accessToken()));
+			response.addHeader(RefreshTokenService.HEADER, result.getResult().refreshToken());
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), null, new ArrayList<Link>(), result.getStatus());
+
+	}
+
+	@DeleteMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("isAuthenticated()")
+	ResponseEntity<Object> logout(@AuthenticationPrincipal TokenPrincipal principal, @RequestHeader(name = RefreshTokenService.HEADER, required = false) String refreshToken) {
+
+		refreshTokens.revoke(refreshToken);
+
+		Result<Revocation> result = revocations.revokeToken(principal);
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), null, new ArrayList<Link>(), result.getStatus());
+
+	}
+
+	@DeleteMapping(path = "users/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> forceLogout(@PathVariable("id") @NotNull Long id) {
+
+		Result<Revocation> result = revocations.revokeUser(id);
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), null, new ArrayList<Link>(), result.getStatus());
+
+	}
+
+}
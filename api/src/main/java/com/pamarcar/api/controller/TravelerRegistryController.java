@@ -1,10 +1,17 @@
 package com.pamarcar.api.controller;
 
 import com.pamarcar.api.handler.ResponseHandler;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.OnTravelerRegistryCreate;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.model.TravelerRegistry;
+import com.pamarcar.api.model.TravelerRegistryBatch;
+import com.pamarcar.api.model.TravelerRegistrySummary;
 import com.pamarcar.api.service.TravelerRegistryService;
+import com.pamarcar.api.util.ContentStore;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.ExportWriter;
 import com.pamarcar.api.util.SortUtil;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +19,19 @@ import org.springframework.data.domain.*;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,9 +56,18 @@ public class TravelerRegistryController {
 	ResponseEntity<Object> getTravelersRegistries(
 			@RequestParam(name = "page", required = false, defaultValue = "0") int page,
 			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
-			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort
+			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort,
+			@RequestParam(name = "count", required = false, defaultValue = "exact") String count
 	) {
 
+		CountEstimator.Mode mode = CountEstimator.Mode.of(count);
+
+		if (mode == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown count mode " + count + ", expected exact, estimate or none", 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
 		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
 
 		ExampleMatcher matcher = ExampleMatcher
@@ -57,31 +80,95 @@ public class TravelerRegistryController {
 				matcher
 		);
 
-		Result<Page<TravelerRegistry>> result = registries.get(page, size, Sort.by(criteria), filter);
+		Result<Slice<TravelerRegistrySummary>> result = registries.get(page, size, Sort.by(criteria), filter, mode == CountEstimator.Mode.EXACT);
+		HttpHeaders headers = new HttpHeaders();
 		ArrayList<Link> links = new ArrayList<>();
 
 		if (result.getResult() != null) {
 
-			Page<TravelerRegistry> records = result.getResult();
+			Slice<TravelerRegistrySummary> records = result.getResult();
 			Pageable metadata = records.getPageable();
 
-			Link self = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(page, size, sort)).withSelfRel();
-			Link first = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.first().getPageNumber(), size, sort)).withRel(IanaLinkRelations.FIRST);
-			Link last = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(records.getTotalPages() - 1, size, sort)).withRel(IanaLinkRelations.LAST);
-			Link next = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.next().getPageNumber(), size, sort)).withRel(IanaLinkRelations.NEXT);
-			Link previous = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.previousOrFirst().getPageNumber(), size, sort)).withRel(IanaLinkRelations.PREVIOUS);
+			Link self = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(page, size, sort, count)).withSelfRel();
+			Link first = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.first().getPageNumber(), size, sort, count)).withRel(IanaLinkRelations.FIRST);
+			Link next = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.next().getPageNumber(), size, sort, count)).withRel(IanaLinkRelations.NEXT);
+			Link previous = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(metadata.previousOrFirst().getPageNumber(), size, sort, count)).withRel(IanaLinkRelations.PREVIOUS);
 			Link one = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistry(null)).withRel(relationProvider.getItemResourceRelFor(TravelerRegistry.class));
 
 			links.add(self);
 			links.add(first);
-			links.add(last);
-			links.add(next);
+
+			if (records instanceof Page<TravelerRegistrySummary> counted) {
+
+				links.add(linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistries(counted.getTotalPages() - 1, size, sort, count)).withRel(IanaLinkRelations.LAST));
+				headers.set(ResponseHandler.TOTAL_COUNT, String.valueOf(counted.getTotalElements()));
+
+			} else if (mode == CountEstimator.Mode.ESTIMATE) {
+
+				headers.set(ResponseHandler.ESTIMATED_TOTAL_COUNT, String.valueOf(registries.estimate(filter)));
+
+			}
+
+			if (records.hasNext()) {
+
+				links.add(next);
+
+			}
+
 			links.add(previous);
 			links.add(one);
 
 		}
 
-		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, result.getStatus());
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult().stream().toList(), links, headers, result.getStatus());
+
+	}
+
+	@GetMapping(params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getTravelersRegistriesByCursor(
+			@RequestParam(name = "cursor") String cursor,
+			@RequestParam(name = "size", required = false, defaultValue = "10") int size,
+			@RequestParam(name = "sort", required = false, defaultValue = "") List<String> sort
+	) {
+
+		List<Sort.Order> criteria = SortUtil.getCriteria(sort);
+
+		ExampleMatcher matcher = ExampleMatcher
+				.matchingAll()
+				.withIgnoreCase()
+				.withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+
+		Example<TravelerRegistry> filter = Example.of(
+				new TravelerRegistry(),
+				matcher
+		);
+
+		Result<Window<TravelerRegistry>> result = registries.get(cursor, size, Sort.by(criteria), filter);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			String next = CursorUtil.next(result.getResult());
+
+			Link self = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistriesByCursor(cursor, size, sort)).withSelfRel();
+			Link first = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistriesByCursor("", size, sort)).withRel(IanaLinkRelations.FIRST);
+			Link one = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistry(null)).withRel(relationProvider.getItemResourceRelFor(TravelerRegistry.class));
+
+			links.add(self);
+			links.add(first);
+
+			if (next != null) {
+
+				links.add(linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistriesByCursor(next, size, sort)).withRel(IanaLinkRelations.NEXT));
+
+			}
+
+			links.add(one);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult() == null ? null : result.getResult().getContent(), links, result.getStatus());
 
 	}
 
@@ -96,9 +183,32 @@ public class TravelerRegistryController {
 
 			Link self = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistry(id)).withSelfRel();
 			Link all = linkTo(TravelerRegistryController.class).withRel(relationProvider.getCollectionResourceRelFor(TravelerRegistry.class));
+			Link signature = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistrySignature(id, null, null)).withRel("signature");
 
 			links.add(self);
 			links.add(all);
+			links.add(signature);
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
+	@GetMapping(params = {"ids", "!cursor"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<Object> getTravelersRegistriesById(@RequestParam(name = "ids") List<Long> ids) {
+
+		Result<List<Lookup<TravelerRegistry>>> result = registries.get(ids);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link self = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistriesById(ids)).withSelfRel();
+			Link one = linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistry(null)).withRel(relationProvider.getItemResourceRelFor(TravelerRegistry.class));
+
+			links.add(self);
+			links.add(one);
 
 		}
 
@@ -106,6 +216,82 @@ public class TravelerRegistryController {
 
 	}
 
+	@GetMapping(path = "{id}/signature")
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<?> getTravelersRegistrySignature(
+			@PathVariable("id") @NotNull Long id,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false, defaultValue = "") String encodings,
+			WebRequest request
+	) {
+
+		Result<ContentStore.Blob> result = registries.getSignature(id);
+
+		if (result.getResult() == null) {
+
+			return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), null, new ArrayList<>(), result.getStatus());
+
+		}
+
+		ContentStore.Blob blob = result.getResult();
+		boolean encoded = blob.compressed() && encodings.contains("gzip");
+
+		// Content addressed, so the hash is a strong validator for as long as the file exists
+		if (request.checkNotModified(blob.etag(encoded))) {
+
+			return null;
+
+		}
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(blob.contentType())
+				.cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable());
+
+		if (blob.compressed()) {
+
+			response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+		}
+
+		if (encoded || !blob.compressed()) {
+
+			response.contentLength(blob.size());
+
+		}
+
+		if (encoded) {
+
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+		}
+
+		StreamingResponseBody body = out -> blob.transfer(encoded, out);
+
+		return response.body(body);
+
+	}
+
+	@GetMapping(path = "export")
+	@PreAuthorize("hasAuthority('ADMIN')")
+	ResponseEntity<?> exportTravelersRegistries(@RequestParam(name = "format", required = false, defaultValue = "ndjson") String format) {
+
+		ExportWriter.Format type = ExportWriter.Format.of(format);
+
+		if (type == null) {
+
+			return ResponseHandler.generateResponse(true, "Unknown export format " + format, 0, null, new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+		}
+
+		// Written straight to the response, a row at a time
+		StreamingResponseBody body = out -> registries.export(type, out);
+
+		return ResponseEntity.ok()
+				.contentType(type.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(type.filename("registries")).build().toString())
+				.body(body);
+
+	}
+
 	@PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 	ResponseEntity<Object> createTravelerRegistry(@Validated(OnTravelerRegistryCreate.class) @RequestBody TravelerRegistry registry) {
 
@@ -126,4 +312,28 @@ public class TravelerRegistryController {
 
 	}
 
+	@PostMapping(path = "bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<Object> createTravelerRegistries(@RequestBody TravelerRegistryBatch batch) {
+
+		Result<List<TravelerRegistry>> result = registries.create(batch);
+		ArrayList<Link> links = new ArrayList<>();
+
+		if (result.getResult() != null) {
+
+			Link all = linkTo(TravelerRegistryController.class).withRel(relationProvider.getCollectionResourceRelFor(TravelerRegistry.class));
+
+			links.add(all);
+
+			for (TravelerRegistry registry : result.getResult()) {
+
+				links.add(linkTo(methodOn(TravelerRegistryController.class).getTravelersRegistry(registry.getId())).withRel(relationProvider.getItemResourceRelFor(TravelerRegistry.class)));
+
+			}
+
+		}
+
+		return ResponseHandler.generateResponse(result.isError(), result.getMessaje(), result.getInternalCode(), result.getResult(), links, result.getStatus());
+
+	}
+
 }
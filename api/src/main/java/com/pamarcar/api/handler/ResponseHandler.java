@@ -11,8 +11,17 @@ import java.util.Map;
 
 public class ResponseHandler {
 
+	public static final String TOTAL_COUNT = "X-Total-Count";
+	public static final String ESTIMATED_TOTAL_COUNT = "X-Total-Count-Estimate";
+
 	public static ResponseEntity<Object> generateResponse(boolean error, String message, int code, Object responseObj, List<Link> links, HttpStatus status) {
 
+		return generateResponse(error, message, code, responseObj, links, new HttpHeaders(), status);
+
+	}
+
+	public static ResponseEntity<Object> generateResponse(boolean error, String message, int code, Object responseObj, List<Link> links, HttpHeaders headers, HttpStatus status) {
+
 		Map<String, Object> map = new HashMap<>();
 
 		map.put("error", error);
@@ -20,8 +29,6 @@ public class ResponseHandler {
 		map.put("message", message);
 		map.put("data", responseObj);
 
-		HttpHeaders headers = new HttpHeaders();
-
 		for (Link link : links) {
 			headers.add(HttpHeaders.LINK, link.toString());
 		}
@@ -0,0 +1,118 @@
+package com.pamarcar.api.migration;
+
+import com.pamarcar.api.service.TravelerRegistryService;
+import com.pamarcar.api.util.ContentStore;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Rows written before the content store keep the image in the legacy signature column.
+// Runs once, under Flyway's lock and inside its transaction, so only one node ever moves them;
+// files left behind by a rolled back run are content addressed and simply reused on the next one.
+@Component
+public class V6__Move_signatures_to_content_store extends BaseJavaMigration {
+
+	private static final Logger log = LoggerFactory.getLogger(V6__Move_signatures_to_content_store.class);
+
+	private static final int BATCH_SIZE = 100;
+
+	private final ContentStore contents;
+
+	@Autowired
+	public V6__Move_signatures_to_content_store(ContentStore contents) {
+		this.contents = contents;
+	}
+
+	@Override
+	public void migrate(Context context) throws Exception {
+
+		Connection connection = context.getConnection();
+		String type = columnType(connection);
+
+		if (type == null) {
+			return;
+		}
+
+		// Hibernate maps @Lob strings to large objects on PostgreSQL
+		boolean largeObject = "oid".equals(type);
+		String select = largeObject
+				? "SELECT id, signature, convert_from(lo_get(signature), 'UTF8') FROM traveler_registry WHERE signature IS NOT NULL"
+				: "SELECT id, NULL, signature FROM traveler_registry WHERE signature IS NOT NULL";
+
+		long moved = 0;
+
+		try (Statement rows = connection.createStatement();
+			 PreparedStatement update = connection.prepareStatement("UPDATE traveler_registry SET signature_hash = ?, signature = NULL WHERE id = ?");
+			 PreparedStatement unlink = connection.prepareStatement("SELECT lo_unlink(?)")) {
+
+			// Streamed with a cursor rather than loaded at once, the connection is not in auto-commit
+			rows.setFetchSize(BATCH_SIZE);
+
+			try (ResultSet row = rows.executeQuery(select)) {
+
+				while (row.next()) {
+
+					if (largeObject) {
+
+						unlink.setLong(1, row.getLong(2));
+						unlink.executeQuery().close();
+
+					}
+
+					update.setString(1, store(row.getString(3)));
+					update.setLong(2, row.getLong(1));
+					update.addBatch();
+
+					if (++moved % BATCH_SIZE == 0) {
+						update.executeBatch();
+					}
+
+				}
+
+			}
+
+			update.executeBatch();
+
+		}
+
+		if (moved > 0) {
+			log.info("Moved {} traveler signatures to the content store", moved);
+		}
+
+	}
+
+	private String store(String signature) throws Exception {
+
+		try {
+
+			return contents.put(TravelerRegistryService.decodeSignature(signature));
+
+		} catch (IllegalArgumentException e) {
+
+			return contents.put(signature.getBytes(StandardCharsets.UTF_8));
+
+		}
+
+	}
+
+	private static String columnType(Connection connection) throws Exception {
+
+		try (PreparedStatement statement = connection.prepareStatement("SELECT data_type FROM information_schema.columns WHERE table_name = 'traveler_registry' AND column_name = 'signature'");
+			 ResultSet result = statement.executeQuery()) {
+
+			return result.next() ? result.getString(1) : null;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.pamarcar.api.model;
+
+import java.util.Date;
+import java.util.List;
+
+public record AccessProvisioningRequested(Long booking, Long apartment, List<String> devices, Date startDate, Date endDate) implements Event {
+
+	public static final String TYPE = "access-provisioning-requested";
+	public static final int VERSION = 1;
+
+	public static AccessProvisioningRequested of(Booking booking) {
+
+		List<String> devices = booking.getApartment().getDevices() == null
+				? List.of()
+				: booking.getApartment().getDevices().stream().map(Device::getIdentifier).toList();
+
+		return new AccessProvisioningRequested(booking.getId(), booking.getApartment().getId(), devices, booking.getStartDate(), booking.getEndDate());
+
+	}
+
+	@Override
+	public String type() {
+		return TYPE;
+	}
+
+	@Override
+	public int version() {
+		return VERSION;
+	}
+
+}
@@ -13,6 +13,7 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Apartment.devices", attributeNodes = @NamedAttributeNode("devices"))
 public class Apartment {
 
 	@Id
@@ -26,7 +27,7 @@ public class Apartment {
 	@Column(nullable = false)
 	private String name;
 
-	@OneToOne
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "owner_id", nullable = false)
 	@NotNull(message = "The owner field must not be empty on create", groups = {OnApartmentCreate.class})
 	@Null(message = "The owner field must be empty on relation", groups = {OnBookingCreate.class})
@@ -34,7 +35,7 @@ public class Apartment {
 	@Valid
 	private User owner;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany
 	@Valid
 	private List<Device> devices;
 
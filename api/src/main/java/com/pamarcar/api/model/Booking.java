@@ -5,6 +5,7 @@ import com.pamarcar.api.util.ValidDateRange;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -53,7 +54,7 @@ public class Booking {
 	@Column(name = "platform_number", nullable = false, unique = true)
 	private String platformId;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "platform_id", nullable = false)
 	@NotNull(message = "The platform field must not be empty on create", groups = {OnBookingCreate.class})
 	@Null(message = "The platform field must be empty on relation", groups = {OnTravelerRegistryCreate.class})
@@ -61,7 +62,7 @@ public class Booking {
 	@Valid
 	private Platform platform;
 
-	@OneToOne
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "apartment_id", nullable = false)
 	@NotNull(message = "The apartment field must not be empty on create", groups = {OnBookingCreate.class})
 	@Null(message = "The apartment field must be empty on relation", groups = {OnTravelerRegistryCreate.class})
@@ -69,7 +70,7 @@ public class Booking {
 	@Valid
 	private Apartment apartment;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id", nullable = false)
 	@NotNull(message = "The user field must not be empty on create", groups = {OnBookingCreate.class})
 	@Null(message = "The user field must be empty on relation", groups = {OnTravelerRegistryCreate.class})
@@ -77,6 +78,15 @@ public class Booking {
 	@Valid
 	private User user;
 
+	@Null(message = "The guests field must be empty on relation", groups = {OnTravelerRegistryCreate.class})
+	@Positive(message = "The guests field must be positive")
+	private Integer guests;
+
+	@Null(message = "The registrations field must be empty on create", groups = {OnBookingCreate.class, OnTravelerRegistryCreate.class})
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Integer registrations;
+
 	@CreationTimestamp
 	@Null(message = "The created at field must be empty on create", groups = {OnBookingCreate.class, OnTravelerRegistryCreate.class})
 	@Column(updatable = false, name = "created_at", nullable = false)
@@ -90,7 +100,7 @@ public class Booking {
 	public Booking() {
 	}
 
-	public Booking(Long id, String securityCode, Date startDate, Date endDate, BigDecimal priceDay, String comment, String platformId, Platform platform, Apartment apartment, User user, Date createdAt, Date updatedAt) {
+	public Booking(Long id, String securityCode, Date startDate, Date endDate, BigDecimal priceDay, String comment, String platformId, Platform platform, Apartment apartment, User user, Integer guests, Integer registrations, Date createdAt, Date updatedAt) {
 		this.id = id;
 		this.securityCode = securityCode;
 		this.startDate = startDate;
@@ -101,6 +111,8 @@ public class Booking {
 		this.platform = platform;
 		this.apartment = apartment;
 		this.user = user;
+		this.guests = guests;
+		this.registrations = registrations;
 		this.createdAt = createdAt;
 		this.updatedAt = updatedAt;
 	}
@@ -195,6 +207,24 @@ public class Booking {
 		return this;
 	}
 
+	public Integer getGuests() {
+		return guests;
+	}
+
+	public Booking setGuests(Integer guests) {
+		this.guests = guests;
+		return this;
+	}
+
+	public Integer getRegistrations() {
+		return registrations;
+	}
+
+	public Booking setRegistrations(Integer registrations) {
+		this.registrations = registrations;
+		return this;
+	}
+
 	public Date getCreatedAt() {
 		return createdAt;
 	}
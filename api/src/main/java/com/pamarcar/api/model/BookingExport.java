@@ -0,0 +1,8 @@
+package com.pamarcar.api.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+// One flat row per booking, related entities are exported as their ids
+public record BookingExport(Long id, String platformId, Long platform, Long apartment, Long user, Date startDate, Date endDate, BigDecimal priceDay, Integer guests, Integer registrations, String comment, Date createdAt, Date updatedAt) {
+}
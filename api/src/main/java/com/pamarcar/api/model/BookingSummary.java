@@ -0,0 +1,12 @@
+package com.pamarcar.api.model;
+
+import java.util.Date;
+
+public record BookingSummary(Long id, Date startDate, Date endDate, String platformId, Reference platform, Reference apartment, Reference user, Date createdAt, Date updatedAt) {
+
+	// Used by JPQL constructor expressions, which can only pass scalar columns
+	public BookingSummary(Long id, Date startDate, Date endDate, String platformId, Long platform, Long apartment, Long user, Date createdAt, Date updatedAt) {
+		this(id, startDate, endDate, platformId, new Reference(platform), new Reference(apartment), new Reference(user), createdAt, updatedAt);
+	}
+
+}
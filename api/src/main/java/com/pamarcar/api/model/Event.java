@@ -0,0 +1,10 @@
+package com.pamarcar.api.model;
+
+// Messages published to other services, versioned independently of the entities they describe
+public interface Event {
+
+	String type();
+
+	int version();
+
+}
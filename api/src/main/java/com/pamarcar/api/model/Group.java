@@ -11,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "groups")
+@NamedEntityGraph(name = "Group.users", attributeNodes = @NamedAttributeNode("users"))
 public class Group {
 
 	@Id
@@ -19,7 +20,7 @@ public class Group {
 	private Long id;
 
 	@Null(message = "The users field must be empty on create", groups = {OnGroupCreate.class})
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany
 	@JsonIncludeProperties(value = {"id", "email"})
 	private List<User> users;
 
@@ -0,0 +1,32 @@
+package com.pamarcar.api.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// One entry of a multi-get, missing ids are reported instead of silently dropped
+public record Lookup<T>(Long id, boolean found, T data) {
+
+	public static final int MAXIMUM_IDS = 100;
+
+	public static boolean isValid(List<Long> ids) {
+
+		return !ids.isEmpty() && ids.size() <= MAXIMUM_IDS && !ids.contains(null);
+
+	}
+
+	// Results of an IN query come back in any order, they are returned in the order the ids were requested
+	public static <T> List<Lookup<T>> inOrder(List<Long> ids, Iterable<T> found, Function<T, Long> id) {
+
+		Map<Long, T> byId = new HashMap<>();
+
+		for (T item : found) {
+			byId.put(id.apply(item), item);
+		}
+
+		return ids.stream().map(requested -> new Lookup<>(requested, byId.containsKey(requested), byId.get(requested))).toList();
+
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.pamarcar.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+@Entity
+@Table(name = "outbox_message", indexes = {
+		@Index(name = "outbox_message_pending", columnList = "sent_at, id")
+})
+public class OutboxMessage {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// Queue the relay publishes to
+	@Column(nullable = false)
+	private String destination;
+
+	// Event type and schema version, null for plain text payloads
+	@Column(name = "event_type", length = 100)
+	private String type;
+
+	@Column(name = "schema_version")
+	private Integer version;
+
+	@Column(nullable = false, columnDefinition = "TEXT")
+	private String payload;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private Date nextAttemptAt;
+
+	@Column(name = "sent_at")
+	private Date sentAt;
+
+	@Column(name = "last_error", length = 1000)
+	private String lastError;
+
+	@CreationTimestamp
+	@Column(updatable = false, name = "created_at", nullable = false)
+	private Date createdAt;
+
+	public OutboxMessage() {
+	}
+
+	public OutboxMessage(Long id, String destination, String type, Integer version, String payload, int attempts, Date nextAttemptAt, Date sentAt, String lastError, Date createdAt) {
+		this.id = id;
+		this.destination = destination;
+		this.type = type;
+		this.version = version;
+		this.payload = payload;
+		this.attempts = attempts;
+		this.nextAttemptAt = nextAttemptAt;
+		this.sentAt = sentAt;
+		this.lastError = lastError;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public OutboxMessage setId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getDestination() {
+		return destination;
+	}
+
+	public OutboxMessage setDestination(String destination) {
+		this.destination = destination;
+		return this;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public OutboxMessage setType(String type) {
+		this.type = type;
+		return this;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public OutboxMessage setVersion(Integer version) {
+		this.version = version;
+		return this;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public OutboxMessage setPayload(String payload) {
+		this.payload = payload;
+		return this;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public OutboxMessage setAttempts(int attempts) {
+		this.attempts = attempts;
+		return this;
+	}
+
+	public Date getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public OutboxMessage setNextAttemptAt(Date nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+		return this;
+	}
+
+	public Date getSentAt() {
+		return sentAt;
+	}
+
+	public OutboxMessage setSentAt(Date sentAt) {
+		this.sentAt = sentAt;
+		return this;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public OutboxMessage setLastError(String lastError) {
+		this.lastError = lastError;
+		return this;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public OutboxMessage setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+		return this;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.pamarcar.api.model;
+
+import com.pamarcar.api.service.DeadLetterService;
+import com.pamarcar.api.util.EventCodec;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public record ParkedMessage(String queue, String type, Integer version, int retries, Date parkedAt, String contentType, String payload) {
+
+	public static ParkedMessage of(Message message) {
+
+		MessageProperties properties = message.getMessageProperties();
+		String contentType = properties.getContentType();
+
+		// Binary encodings are shown as base64
+		boolean text = contentType != null && (contentType.startsWith("text/") || contentType.startsWith(MessageProperties.CONTENT_TYPE_JSON));
+
+		return new ParkedMessage(
+				properties.getHeader(DeadLetterService.QUEUE_HEADER),
+				properties.getType(),
+				properties.getHeader(EventCodec.VERSION_HEADER) instanceof Number version ? version.intValue() : null,
+				DeadLetterService.retries(properties),
+				properties.getHeader(DeadLetterService.PARKED_AT_HEADER) instanceof Number parkedAt ? new Date(parkedAt.longValue()) : null,
+				contentType,
+				text ? new String(message.getBody(), StandardCharsets.UTF_8) : Base64.getEncoder().encodeToString(message.getBody())
+		);
+
+	}
+
+}
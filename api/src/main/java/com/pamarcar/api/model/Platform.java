@@ -2,6 +2,8 @@ package com.pamarcar.api.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,6 +11,9 @@ import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "platform_name_idx", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Platform {
 
 	@Id
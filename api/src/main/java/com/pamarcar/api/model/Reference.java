@@ -0,0 +1,4 @@
+package com.pamarcar.api.model;
+
+public record Reference(Long id) {
+}
@@ -0,0 +1,144 @@
+package com.pamarcar.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+@Entity
+@Table(name = "refresh_token", indexes = {
+		@Index(name = "refresh_token_hash_idx", columnList = "token_hash", unique = true),
+		@Index(name = "refresh_token_family_idx", columnList = "family"),
+		@Index(name = "refresh_token_user_idx", columnList = "user_id")
+})
+public class RefreshToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// SHA-256 of the token handed to the client, the token itself is never stored
+	@Column(name = "token_hash", nullable = false, length = 64)
+	private String tokenHash;
+
+	// Every token obtained by rotating the same login shares a family
+	@Column(nullable = false, length = 36)
+	private String family;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id", nullable = false)
+	private User user;
+
+	@Column(name = "expires_at", nullable = false)
+	private Date expiresAt;
+
+	@Column(name = "session_expires_at", nullable = false)
+	private Date sessionExpiresAt;
+
+	@Column(name = "used_at")
+	private Date usedAt;
+
+	@Column(name = "revoked_at")
+	private Date revokedAt;
+
+	@CreationTimestamp
+	@Column(updatable = false, name = "created_at", nullable = false)
+	private Date createdAt;
+
+	public RefreshToken() {
+	}
+
+	public RefreshToken(Long id, String tokenHash, String family, User user, Date expiresAt, Date sessionExpiresAt, Date usedAt, Date revokedAt, Date createdAt) {
+		this.id = id;
+		this.tokenHash = tokenHash;
+		this.family = family;
+		this.user = user;
+		this.expiresAt = expiresAt;
+		this.sessionExpiresAt = sessionExpiresAt;
+		this.usedAt = usedAt;
+		this.revokedAt = revokedAt;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public RefreshToken setId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public RefreshToken setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+		return this;
+	}
+
+	public String getFamily() {
+		return family;
+	}
+
+	public RefreshToken setFamily(String family) {
+		this.family = family;
+		return this;
+	}
+
+	public User getUser() {
+		return user;
+	}
+
+	public RefreshToken setUser(User user) {
+		this.user = user;
+		return this;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public RefreshToken setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+		return this;
+	}
+
+	public Date getSessionExpiresAt() {
+		return sessionExpiresAt;
+	}
+
+	public RefreshToken setSessionExpiresAt(Date sessionExpiresAt) {
+		this.sessionExpiresAt = sessionExpiresAt;
+		return this;
+	}
+
+	public Date getUsedAt() {
+		return usedAt;
+	}
+
+	public RefreshToken setUsedAt(Date usedAt) {
+		this.usedAt = usedAt;
+		return this;
+	}
+
+	public Date getRevokedAt() {
+		return revokedAt;
+	}
+
+	public RefreshToken setRevokedAt(Date revokedAt) {
+		this.revokedAt = revokedAt;
+		return this;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public RefreshToken setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+		return this;
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.pamarcar.api.model;
+
+public record RegistrationCompleted(Long booking, int guests, int registrations) implements Event {
+
+	public static final String TYPE = "registration-completed";
+	public static final int VERSION = 1;
+
+	@Override
+	public String type() {
+		return TYPE;
+	}
+
+	@Override
+	public int version() {
+		return VERSION;
+	}
+
+}
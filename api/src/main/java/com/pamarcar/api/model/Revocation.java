@@ -0,0 +1,100 @@
+package com.pamarcar.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+@Entity
+@Table(indexes = @Index(name = "revocation_expires_at_idx", columnList = "expires_at"))
+public class Revocation {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// Set when a single token is revoked (logout)
+	@Column(name = "token_id", length = 36)
+	private String tokenId;
+
+	// Set when every token of a user issued before issuedBefore is revoked (force logout)
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Column(name = "issued_before")
+	private Date issuedBefore;
+
+	@Column(name = "expires_at", nullable = false)
+	private Date expiresAt;
+
+	@CreationTimestamp
+	@Column(updatable = false, name = "created_at", nullable = false)
+	private Date createdAt;
+
+	public Revocation() {
+	}
+
+	public Revocation(Long id, String tokenId, Long userId, Date issuedBefore, Date expiresAt, Date createdAt) {
+		this.id = id;
+		this.tokenId = tokenId;
+		this.userId = userId;
+		this.issuedBefore = issuedBefore;
+		this.expiresAt = expiresAt;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Revocation setId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public Revocation setTokenId(String tokenId) {
+		this.tokenId = tokenId;
+		return this;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Revocation setUserId(Long userId) {
+		this.userId = userId;
+		return this;
+	}
+
+	public Date getIssuedBefore() {
+		return issuedBefore;
+	}
+
+	public Revocation setIssuedBefore(Date issuedBefore) {
+		this.issuedBefore = issuedBefore;
+		return this;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public Revocation setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+		return this;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public Revocation setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+		return this;
+	}
+
+}
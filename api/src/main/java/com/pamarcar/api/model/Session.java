@@ -0,0 +1,4 @@
+package com.pamarcar.api.model;
+
+public record Session(String accessToken, String refreshToken) {
+}
@@ -0,0 +1,60 @@
+package com.pamarcar.api.model;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+// Verified bearer token, one instance is shared by every request carrying that token so nothing on it can change
+public final class TokenAuthentication implements Authentication {
+
+	private final TokenPrincipal principal;
+	private final List<GrantedAuthority> authorities;
+
+	public TokenAuthentication(TokenPrincipal principal, Collection<? extends GrantedAuthority> authorities) {
+		this.principal = principal;
+		this.authorities = List.copyOf(authorities);
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
+
+	@Override
+	public Object getCredentials() {
+		return null;
+	}
+
+	@Override
+	public Object getDetails() {
+		return null;
+	}
+
+	@Override
+	public TokenPrincipal getPrincipal() {
+		return principal;
+	}
+
+	@Override
+	public boolean isAuthenticated() {
+		return true;
+	}
+
+	@Override
+	public void setAuthenticated(boolean authenticated) {
+		throw new IllegalArgumentException("Token authentications are immutable");
+	}
+
+	@Override
+	public String getName() {
+		return principal.getName();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [Principal=" + principal.getName() + ", Authorities=" + authorities + "]";
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.pamarcar.api.model;
+
+import java.security.Principal;
+
+public record TokenPrincipal(Long id, String email, String tokenId, long issuedAt, long expiresAt) implements Principal {
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+}
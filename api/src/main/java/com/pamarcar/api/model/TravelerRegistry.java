@@ -1,6 +1,8 @@
 package com.pamarcar.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
@@ -10,10 +12,13 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "traveler_registry_booking_idx", columnList = "booking_id"))
 public class TravelerRegistry {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// Pooled sequence so bulk registrations can be sent as one JDBC batch
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "traveler_registry_seq")
+	@SequenceGenerator(name = "traveler_registry_seq", sequenceName = "traveler_registry_seq", allocationSize = 50)
 	@Null(message = "The id field must be empty on create", groups = {OnTravelerRegistryCreate.class})
 	private Long id;
 
@@ -99,11 +104,17 @@ public class TravelerRegistry {
 	@Column(nullable = false)
 	private String postalCode;
 
+	// Only received on create, the image itself lives in the signature store
 	@NotBlank(message = "The signature field must not be empty on create", groups = {OnTravelerRegistryCreate.class})
-	@Lob
-	@Column(nullable = false)
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+	@Transient
 	private String signature;
 
+	@Null(message = "The signature hash field must be empty on create", groups = {OnTravelerRegistryCreate.class})
+	@Column(name = "signature_hash", length = 64)
+	@JsonIgnore
+	private String signatureHash;
+
 	@CreationTimestamp
 	@Null(message = "The created at field must be empty on create", groups = {OnTravelerRegistryCreate.class})
 	@Column(updatable = false, name = "created_at", nullable = false)
@@ -117,7 +128,7 @@ public class TravelerRegistry {
 	public TravelerRegistry() {
 	}
 
-	public TravelerRegistry(Long id, Booking booking, DocumentType documentType, String documentNumber, Date documentIssuedDate, String documentSupport, String firstName, String lastName, Date birthDate, Gender gender, String nationality, String phone, String email, String city, String province, String country, String postalCode, String signature, Date createdAt, Date updatedAt) {
+	public TravelerRegistry(Long id, Booking booking, DocumentType documentType, String documentNumber, Date documentIssuedDate, String documentSupport, String firstName, String lastName, Date birthDate, Gender gender, String nationality, String phone, String email, String city, String province, String country, String postalCode, String signature, String signatureHash, Date createdAt, Date updatedAt) {
 		this.id = id;
 		this.booking = booking;
 		this.documentType = documentType;
@@ -136,6 +147,7 @@ public class TravelerRegistry {
 		this.country = country;
 		this.postalCode = postalCode;
 		this.signature = signature;
+		this.signatureHash = signatureHash;
 	}
 
 	public Long getId() {
@@ -300,6 +312,24 @@ public class TravelerRegistry {
 		return this;
 	}
 
+	public String getSignatureHash() {
+		return signatureHash;
+	}
+
+	public TravelerRegistry setSignatureHash(String signatureHash) {
+		this.signatureHash = signatureHash;
+		return this;
+	}
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	public String getSignatureUrl() {
+		return signatureUrl(id);
+	}
+
+	public static String signatureUrl(Long id) {
+		return id == null ? null : "/registries/" + id + "/signature";
+	}
+
 	public Date getCreatedAt() {
 		return createdAt;
 	}
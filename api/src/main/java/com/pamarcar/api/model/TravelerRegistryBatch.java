@@ -0,0 +1,10 @@
+package com.pamarcar.api.model;
+
+import java.util.List;
+
+public record TravelerRegistryBatch(Booking booking, List<TravelerRegistry> travelers) {
+
+	// A created batch can always be read back with a single multi-get
+	public static final int MAXIMUM_TRAVELERS = Lookup.MAXIMUM_IDS;
+
+}
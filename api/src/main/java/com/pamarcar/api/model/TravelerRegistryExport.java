@@ -0,0 +1,7 @@
+package com.pamarcar.api.model;
+
+import java.util.Date;
+
+// One flat row per traveler, the signature image stays in the content store
+public record TravelerRegistryExport(Long id, Long booking, DocumentType documentType, String documentNumber, Date documentIssuedDate, String documentSupport, String firstName, String lastName, Date birthDate, Gender gender, String nationality, String phone, String email, String city, String province, String country, String postalCode, Date createdAt, Date updatedAt) {
+}
@@ -0,0 +1,12 @@
+package com.pamarcar.api.model;
+
+import java.util.Date;
+
+public record TravelerRegistrySummary(Long id, Reference booking, DocumentType documentType, String documentNumber, String firstName, String lastName, String nationality, String country, String signatureUrl, Date createdAt, Date updatedAt) {
+
+	// Used by JPQL constructor expressions, which can only pass scalar columns
+	public TravelerRegistrySummary(Long id, Long booking, DocumentType documentType, String documentNumber, String firstName, String lastName, String nationality, String country, Date createdAt, Date updatedAt) {
+		this(id, new Reference(booking), documentType, documentNumber, firstName, lastName, nationality, country, TravelerRegistry.signatureUrl(id), createdAt, updatedAt);
+	}
+
+}
@@ -13,7 +13,8 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "users_email_idx", columnList = "email"))
+@NamedEntityGraph(name = "User.roles", attributeNodes = @NamedAttributeNode("roles"))
 public class User {
 
 	@Id
@@ -39,7 +40,7 @@ public class User {
 	private String password;
 
 	@Null(message = "The roles field must be empty on create", groups = {OnUserCreate.class, OnBookingCreate.class, OnApartmentCreate.class, OnGroupCreate.class})
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany
 	@JsonIncludeProperties(value = {"id", "name"})
 	private List<Role> roles;
 
@@ -1,9 +1,21 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.Apartment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface ApartmentRepository extends JpaRepository<Apartment, Long>, QueryByExampleExecutor<Apartment> {
 
+	@Override
+	@EntityGraph("Apartment.devices")
+	Optional<Apartment> findById(Long id);
+
+	@Override
+	@EntityGraph("Apartment.devices")
+	List<Apartment> findAllById(Iterable<Long> ids);
+
 }
@@ -1,13 +1,43 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.Booking;
+import com.pamarcar.api.model.BookingExport;
+import com.pamarcar.api.model.BookingSummary;
+import com.pamarcar.api.util.ExportWriter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.stream.Stream;
+
 public interface BookingRepository extends JpaRepository<Booking, Long>, QueryByExampleExecutor<Booking> {
 
+	String SUMMARIES = "SELECT new com.pamarcar.api.model.BookingSummary(b.id, b.startDate, b.endDate, b.platformId, b.platform.id, b.apartment.id, b.user.id, b.createdAt, b.updatedAt) FROM Booking b";
+	String SUMMARIES_FILTER = " WHERE (:id IS NULL OR b.id = :id) AND LOWER(b.platformId) LIKE :platformId ESCAPE '!'";
+
 	Booking findByPlatformId(String id);
 
-	Booking findByIdAndSecurityCode(Long id, String securityCode);
+	// Locked so concurrent registrations for the same booking update its counter one after another
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Booking findLockedByIdAndSecurityCode(Long id, String securityCode);
+
+	@Query(value = SUMMARIES + SUMMARIES_FILTER, countQuery = "SELECT COUNT(b) FROM Booking b" + SUMMARIES_FILTER)
+	Page<BookingSummary> findSummaries(@Param("id") Long id, @Param("platformId") String platformId, Pageable request);
+
+	@Query(SUMMARIES + SUMMARIES_FILTER)
+	Slice<BookingSummary> findSummarySlice(@Param("id") Long id, @Param("platformId") String platformId, Pageable request);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.FETCH_SIZE), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+	@Query("SELECT new com.pamarcar.api.model.BookingExport(b.id, b.platformId, b.platform.id, b.apartment.id, b.user.id, b.startDate, b.endDate, b.priceDay, b.guests, b.registrations, b.comment, b.createdAt, b.updatedAt) FROM Booking b ORDER BY b.id")
+	Stream<BookingExport> streamExport();
 
 }
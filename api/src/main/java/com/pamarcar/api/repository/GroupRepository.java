@@ -1,9 +1,21 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.Group;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface GroupRepository extends JpaRepository<Group, Long>, QueryByExampleExecutor<Group> {
 
+	@Override
+	@EntityGraph("Group.users")
+	Optional<Group> findById(Long id);
+
+	@Override
+	@EntityGraph("Group.users")
+	List<Group> findAllById(Iterable<Long> ids);
+
 }
@@ -0,0 +1,32 @@
+package com.pamarcar.api.repository;
+
+import com.pamarcar.api.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+	// Held until the draining transaction ends, so a single node relays at a time and messages leave in order
+	@Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_relay'))", nativeQuery = true)
+	boolean tryLockRelay();
+
+	// Oldest first, including rows still backing off, the relay never skips past them
+	@Query(value = "SELECT * FROM outbox_message WHERE sent_at IS NULL ORDER BY id LIMIT :size", nativeQuery = true)
+	List<OutboxMessage> findPending(int size);
+
+	@Query("select min(m.createdAt) from OutboxMessage m where m.sentAt is null")
+	Date findOldestPending();
+
+	long countBySentAtIsNull();
+
+	@Transactional
+	@Modifying
+	@Query("delete from OutboxMessage m where m.sentAt < :date")
+	int deleteSent(Date date);
+
+}
@@ -0,0 +1,26 @@
+package com.pamarcar.api.repository;
+
+import com.pamarcar.api.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	// Locked so two concurrent refreshes of the same token cannot both rotate it
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	RefreshToken findByTokenHash(String tokenHash);
+
+	@Modifying
+	@Query("update RefreshToken t set t.revokedAt = :date where t.family = :family and t.revokedAt is null")
+	int revokeFamily(String family, Date date);
+
+	@Modifying
+	@Query("update RefreshToken t set t.revokedAt = :date where t.user.id = :userId and t.revokedAt is null")
+	int revokeUser(Long userId, Date date);
+
+}
@@ -0,0 +1,21 @@
+package com.pamarcar.api.repository;
+
+import com.pamarcar.api.model.Revocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RevocationRepository extends JpaRepository<Revocation, Long> {
+
+	List<Revocation> findAllByExpiresAtAfter(Date date);
+
+	@Transactional
+	@Modifying
+	@Query("delete from Revocation r where r.expiresAt < :date")
+	int deleteExpired(Date date);
+
+}
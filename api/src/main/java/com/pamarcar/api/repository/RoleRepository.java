@@ -1,11 +1,16 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.Role;
+import com.pamarcar.api.util.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 public interface RoleRepository extends JpaRepository<Role, Long>, QueryByExampleExecutor<Role> {
 
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_REGION)})
 	Role findByName(String name);
 
 }
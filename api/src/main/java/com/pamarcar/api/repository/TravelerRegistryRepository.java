@@ -1,13 +1,38 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.TravelerRegistry;
+import com.pamarcar.api.model.TravelerRegistryExport;
+import com.pamarcar.api.model.TravelerRegistrySummary;
+import com.pamarcar.api.util.ExportWriter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
-import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TravelerRegistryRepository extends JpaRepository<TravelerRegistry, Long>, QueryByExampleExecutor<TravelerRegistry> {
 
-	ArrayList<TravelerRegistry> findAllByBookingId(Long bookingId);
+	String SUMMARIES = "SELECT new com.pamarcar.api.model.TravelerRegistrySummary(r.id, r.booking.id, r.documentType, r.documentNumber, r.firstName, r.lastName, r.nationality, r.country, r.createdAt, r.updatedAt) FROM TravelerRegistry r";
+
+	@Query("SELECT r.signatureHash FROM TravelerRegistry r WHERE r.id = :id")
+	Optional<String> findSignatureHashById(@Param("id") Long id);
+
+	@Query(value = SUMMARIES, countQuery = "SELECT COUNT(r) FROM TravelerRegistry r")
+	Page<TravelerRegistrySummary> findSummaries(Pageable request);
+
+	@Query(SUMMARIES)
+	Slice<TravelerRegistrySummary> findSummarySlice(Pageable request);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.FETCH_SIZE), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+	@Query("SELECT new com.pamarcar.api.model.TravelerRegistryExport(r.id, r.booking.id, r.documentType, r.documentNumber, r.documentIssuedDate, r.documentSupport, r.firstName, r.lastName, r.birthDate, r.gender, r.nationality, r.phone, r.email, r.city, r.province, r.country, r.postalCode, r.createdAt, r.updatedAt) FROM TravelerRegistry r ORDER BY r.id")
+	Stream<TravelerRegistryExport> streamExport();
 
 }
@@ -1,11 +1,24 @@
 package com.pamarcar.api.repository;
 
 import com.pamarcar.api.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long>, QueryByExampleExecutor<User> {
 
+	@Override
+	@EntityGraph("User.roles")
+	Optional<User> findById(Long id);
+
+	@Override
+	@EntityGraph("User.roles")
+	List<User> findAllById(Iterable<Long> ids);
+
+	@EntityGraph("User.roles")
 	User findByEmail(String email);
 
 }
@@ -1,35 +1,75 @@
 package com.pamarcar.api.service;
 
 import com.pamarcar.api.model.Apartment;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.repository.ApartmentRepository;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.SliceUtil;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Service
 public class ApartmentService {
 
 	private final ApartmentRepository apartments;
 	private final Validator validator;
+	private final CountEstimator estimator;
 
 	@Autowired
-	public ApartmentService(ApartmentRepository apartments, Validator validator) {
+	public ApartmentService(ApartmentRepository apartments, Validator validator, CountEstimator estimator) {
 		this.apartments = apartments;
 		this.validator = validator;
+		this.estimator = estimator;
 	}
 
-	public Result<Page<Apartment>> get(int page, int size, Sort sort, Example<Apartment> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<Apartment>> get(int page, int size, Sort sort, Example<Apartment> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<Apartment> pageResult = apartments.findAll(filter, request);
+		Slice<Apartment> sliceResult = count
+				? apartments.findAll(filter, request)
+				: SliceUtil.of(apartments.findBy(filter, query -> query.sortBy(sort).limit(size).scroll(SliceUtil.position(request))), request);
 
-		return new Result<>(pageResult, false, "Apartments data", 0, Result.Code.OK);
+		return new Result<>(sliceResult, false, "Apartments data", 0, Result.Code.OK);
 
 	}
 
+	public long estimate(Example<Apartment> filter) {
+
+		return estimator.estimate(filter, () -> apartments.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<Apartment>> get(String cursor, int size, Sort sort, Example<Apartment> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, Apartment.class);
+			Sort order = CursorUtil.withTieBreaker(sort, Apartment.class);
+
+			Window<Apartment> window = apartments.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Apartments data", 0, Result.Code.OK);
+
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional(readOnly = true)
 	public Result<Apartment> get(Long id) {
 
 		Apartment result = apartments.findById(id).orElse(null);
@@ -44,4 +84,19 @@ public class ApartmentService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<Apartment>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<Apartment> result = apartments.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, Apartment::getId), false, "Apartments data", 0, Result.Code.OK);
+
+	}
+
 }
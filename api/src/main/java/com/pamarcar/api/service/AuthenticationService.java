@@ -1,32 +1,75 @@
 package com.pamarcar.api.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pamarcar.api.configuration.RabbitMQConfiguration;
+import com.pamarcar.api.model.AuthenticatedUser;
 import com.pamarcar.api.model.Role;
 import com.pamarcar.api.model.User;
 import com.pamarcar.api.repository.UserRepository;
+import com.pamarcar.api.util.MessageSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
-public class AuthenticationService implements UserDetailsService {
+public class AuthenticationService implements UserDetailsService, UserDetailsPasswordService {
+
+	private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+
+	// Messages on the cache invalidation exchange that name a user rather than an entity
+	private static final String EVICTION_PREFIX = "user:";
+
+	private static final long MAXIMUM_SIZE = 10_000;
+	private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
 
 	private final UserRepository users;
+	private final MessageSender messageSender;
+	private final Cache<String, AuthenticatedUser> details;
+	private final Map<String, List<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
 
 	@Autowired
-	public AuthenticationService(UserRepository users) {
+	public AuthenticationService(UserRepository users, MessageSender messageSender, MeterRegistry registry) {
 
 		this.users = users;
+		this.messageSender = messageSender;
+		this.details = Caffeine.newBuilder()
+				.maximumSize(MAXIMUM_SIZE)
+				.expireAfterWrite(TIME_TO_LIVE)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(registry, details, "authentication.users");
 
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
+		AuthenticatedUser cached = details.getIfPresent(email);
+
+		if (cached != null) {
+
+			return cached;
+
+		}
+
 		User user = users.findByEmail(email);
 
 		if (user == null) {
@@ -35,15 +78,76 @@ public class AuthenticationService implements UserDetailsService {
 
 		}
 
-		return org.springframework.security.core.userdetails.User.builder()
-				.username(user.getEmail())
-				.password(user.getPassword())
-				.authorities(AuthorityUtils.commaSeparatedStringToAuthorityList(
-						user.getRoles().stream()
-								.map(Role::getName)
-								.collect(Collectors.joining(","))
-				))
-				.build();
+		AuthenticatedUser loaded = toDetails(user, user.getPassword());
+
+		details.put(email, loaded);
+
+		return loaded;
+
+	}
+
+	// Called after a successful login whose stored hash uses an older algorithm or a lower cost
+	@Override
+	public UserDetails updatePassword(UserDetails current, String newPassword) {
+
+		User user = users.findByEmail(current.getUsername());
+
+		if (user == null) {
+
+			return current;
+
+		}
+
+		user.setPassword(newPassword);
+		users.save(user);
+
+		evict(user.getEmail());
+
+		return toDetails(user, newPassword);
+
+	}
+
+	// Every node drops its copy and reloads it on the next login, this one without waiting for the broadcast
+	public void evict(String email) {
+
+		details.invalidate(email);
+
+		messageSender.publish(RabbitMQConfiguration.CACHE_INVALIDATION_EXCHANGE, EVICTION_PREFIX + email)
+				.whenComplete((ignored, error) -> {
+
+					if (error != null) {
+						log.warn("Could not broadcast eviction of {}, other nodes keep it for up to {}", email, TIME_TO_LIVE, error);
+					}
+
+				});
+
+	}
+
+	@RabbitListener(queues = "#{userInvalidationQueue.name}")
+	public void receive(String message) {
+
+		if (message.startsWith(EVICTION_PREFIX)) {
+			details.invalidate(message.substring(EVICTION_PREFIX.length()));
+		}
+
+	}
+
+	private AuthenticatedUser toDetails(User user, String password) {
+
+		String roles = user.getRoles().stream()
+				.map(Role::getName)
+				.sorted()
+				.collect(Collectors.joining(","));
+
+		// Users with the same roles share one immutable authority list
+		List<GrantedAuthority> authorities = authoritySets.computeIfAbsent(roles, key -> List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(key)));
+
+		return new AuthenticatedUser(
+				user.getId(),
+				user.getEmail(),
+				password,
+				authorities
+		);
 
 	}
 
@@ -1,37 +1,86 @@
 package com.pamarcar.api.service;
 
 import com.pamarcar.api.model.Booking;
+import com.pamarcar.api.model.BookingExport;
+import com.pamarcar.api.model.BookingSummary;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.repository.BookingRepository;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.ExportWriter;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
 
 	private final BookingRepository bookings;
 	private final Validator validator;
+	private final CountEstimator estimator;
+	private final ExportWriter exporter;
 
 	@Autowired
-	public BookingService(BookingRepository bookings, Validator validator) {
+	public BookingService(BookingRepository bookings, Validator validator, CountEstimator estimator, ExportWriter exporter) {
 		this.bookings = bookings;
 		this.validator = validator;
+		this.estimator = estimator;
+		this.exporter = exporter;
 	}
 
-	public Result<Page<Booking>> get(int page, int size, Sort sort, Example<Booking> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<BookingSummary>> get(int page, int size, Sort sort, Example<Booking> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<Booking> pageResult = bookings.findAll(filter, request);
+		Long id = filter.getProbe().getId();
+		String platformId = containing(filter.getProbe().getPlatformId());
 
-		return new Result<>(pageResult, false, "Bookings data", 0, Result.Code.OK);
+		Slice<BookingSummary> sliceResult = count
+				? bookings.findSummaries(id, platformId, request)
+				: bookings.findSummarySlice(id, platformId, request);
+
+		return new Result<>(sliceResult, false, "Bookings data", 0, Result.Code.OK);
+
+	}
+
+	public long estimate(Example<Booking> filter) {
+
+		return estimator.estimate(filter, () -> bookings.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<Booking>> get(String cursor, int size, Sort sort, Example<Booking> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, Booking.class);
+			Sort order = CursorUtil.withTieBreaker(sort, Booking.class);
+
+			Window<Booking> window = bookings.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Bookings data", 0, Result.Code.OK);
+
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
 
 	}
 
+	@Transactional(readOnly = true)
 	public Result<Booking> get(Long id) {
 
 		Booking result = bookings.findById(id).orElse(null);
@@ -46,6 +95,32 @@ public class BookingService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<Booking>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<Booking> result = bookings.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, Booking::getId), false, "Bookings data", 0, Result.Code.OK);
+
+	}
+
+	@Transactional(readOnly = true)
+	public long export(ExportWriter.Format format, OutputStream out) throws IOException {
+
+		try (Stream<BookingExport> rows = bookings.streamExport()) {
+
+			return exporter.write(rows, BookingExport.class, format, out);
+
+		}
+
+	}
+
 	public Result<Booking> create(Booking booking) {
 
 		try {
@@ -59,6 +134,7 @@ public class BookingService {
 			}
 
 			booking.setSecurityCode(UUID.randomUUID().toString());
+			booking.setRegistrations(0);
 
 			Booking new_registry = bookings.save(booking);
 
@@ -72,4 +148,16 @@ public class BookingService {
 
 	}
 
+	// Same matching the Query by Example filters use: case insensitive, anywhere in the value
+	private static String containing(String value) {
+
+		String escaped = (value == null ? "" : value.toLowerCase())
+				.replace("!", "!!")
+				.replace("%", "!%")
+				.replace("_", "!_");
+
+		return "%" + escaped + "%";
+
+	}
+
 }
@@ -0,0 +1,221 @@
+package com.pamarcar.api.service;
+
+import com.pamarcar.api.configuration.RabbitMQConfiguration;
+import com.pamarcar.api.model.ParkedMessage;
+import com.pamarcar.api.model.Result;
+import com.pamarcar.api.util.MessageSender;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+public class DeadLetterService {
+
+	private static final Logger log = LoggerFactory.getLogger(DeadLetterService.class);
+
+	public static final String QUEUE_HEADER = "x-original-queue";
+	public static final String RETRIES_HEADER = "x-retries";
+	public static final String PARKED_AT_HEADER = "x-parked-at";
+
+	private static final int MAXIMUM_BATCH = 100;
+
+	private final RabbitTemplate rabbitTemplate;
+	private final MessageSender messageSender;
+	private final MessagePropertiesConverter converter = new DefaultMessagePropertiesConverter();
+	private final Counter retried;
+	private final Counter parked;
+
+	@Autowired
+	public DeadLetterService(RabbitTemplate rabbitTemplate, MessageSender messageSender, MeterRegistry registry) {
+
+		this.rabbitTemplate = rabbitTemplate;
+		this.messageSender = messageSender;
+		this.retried = Counter.builder("messaging.retried").description("Rejected messages scheduled for another attempt").register(registry);
+		this.parked = Counter.builder("messaging.parked").description("Messages that ran out of retries").register(registry);
+
+	}
+
+	public static int retries(MessageProperties properties) {
+
+		return properties.getHeader(RETRIES_HEADER) instanceof Number retries ? retries.intValue() : 0;
+
+	}
+
+	// Our own counter is used instead of x-death, the broker does not trust x-death headers sent by clients
+	@RabbitListener(queues = RabbitMQConfiguration.DEAD_LETTER_QUEUE)
+	public void receive(Message message) {
+
+		MessageProperties properties = message.getMessageProperties();
+		String queue = properties.getHeader(QUEUE_HEADER);
+
+		if (queue == null) {
+
+			// Dead lettering keeps the routing key, which is the work queue for the default exchange
+			queue = properties.getReceivedRoutingKey();
+			properties.setHeader(QUEUE_HEADER, queue);
+
+		}
+
+		int retries = retries(properties);
+
+		if (RabbitMQConfiguration.WORK_QUEUES.contains(queue) && retries < RabbitMQConfiguration.RETRY_ATTEMPTS) {
+
+			properties.setHeader(RETRIES_HEADER, retries + 1);
+
+			// Throwing puts the message back on the dead letter queue
+			messageSender.send(RabbitMQConfiguration.retryQueue(queue, retries), message).join();
+			retried.increment();
+
+			return;
+
+		}
+
+		properties.setHeader(PARKED_AT_HEADER, System.currentTimeMillis());
+
+		messageSender.send(RabbitMQConfiguration.PARKING_QUEUE, message).join();
+		parked.increment();
+
+		log.warn("Message for {} parked after {} retries", queue, retries);
+
+	}
+
+	// Messages are only borrowed, they go back to the parking queue in the same order
+	public Result<List<ParkedMessage>> getParked(int size) {
+
+		try {
+
+			List<ParkedMessage> result = rabbitTemplate.execute(channel -> {
+
+				List<ParkedMessage> messages = new ArrayList<>();
+				long last = -1;
+
+				for (Message message : fetch(channel, size)) {
+
+					messages.add(ParkedMessage.of(message));
+					last = message.getMessageProperties().getDeliveryTag();
+
+				}
+
+				if (last >= 0) {
+					channel.basicNack(last, true, true);
+				}
+
+				return messages;
+
+			});
+
+			return new Result<>(result, false, "Parked messages", 0, Result.Code.OK);
+
+		} catch (AmqpException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	// Replayed messages start over with a full set of retries
+	public Result<List<ParkedMessage>> replay(int size) {
+
+		try {
+
+			List<ParkedMessage> result = rabbitTemplate.execute(channel -> {
+
+				List<Message> messages = fetch(channel, size);
+				List<CompletableFuture<Void>> confirms = new ArrayList<>(messages.size());
+
+				for (Message message : messages) {
+
+					MessageProperties properties = message.getMessageProperties();
+					String queue = properties.getHeader(QUEUE_HEADER);
+
+					properties.getHeaders().remove(RETRIES_HEADER);
+					properties.getHeaders().remove(PARKED_AT_HEADER);
+
+					confirms.add(queue == null
+							? CompletableFuture.failedFuture(new AmqpException("Unknown destination"))
+							: messageSender.send(queue, message));
+
+				}
+
+				List<ParkedMessage> replayed = new ArrayList<>();
+
+				// A parked message is only removed once its replay is confirmed
+				for (int i = 0; i < messages.size(); i++) {
+
+					Message message = messages.get(i);
+					long tag = message.getMessageProperties().getDeliveryTag();
+
+					try {
+
+						confirms.get(i).join();
+
+						channel.basicAck(tag, false);
+						replayed.add(ParkedMessage.of(message));
+
+					} catch (CompletionException e) {
+
+						log.warn("Could not replay parked message for {}", message.getMessageProperties().getHeader(QUEUE_HEADER), e.getCause());
+						channel.basicNack(tag, false, true);
+
+					}
+
+				}
+
+				return replayed;
+
+			});
+
+			return new Result<>(result, false, "Parked messages replayed", 0, Result.Code.OK);
+
+		} catch (AmqpException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	private List<Message> fetch(Channel channel, int size) throws IOException {
+
+		List<Message> messages = new ArrayList<>();
+
+		while (messages.size() < Math.min(size, MAXIMUM_BATCH)) {
+
+			GetResponse response = channel.basicGet(RabbitMQConfiguration.PARKING_QUEUE, false);
+
+			if (response == null) {
+				break;
+			}
+
+			MessageProperties properties = converter.toMessageProperties(response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+			properties.setMessageCount(response.getMessageCount());
+
+			messages.add(new Message(response.getBody(), properties));
+
+		}
+
+		return messages;
+
+	}
+
+}
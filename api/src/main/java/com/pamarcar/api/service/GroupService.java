@@ -1,35 +1,75 @@
 package com.pamarcar.api.service;
 
 import com.pamarcar.api.model.Group;
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.repository.GroupRepository;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.SliceUtil;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Service
 public class GroupService {
 
 	private final GroupRepository groups;
 	private final Validator validator;
+	private final CountEstimator estimator;
 
 	@Autowired
-	public GroupService(GroupRepository groups, Validator validator) {
+	public GroupService(GroupRepository groups, Validator validator, CountEstimator estimator) {
 		this.groups = groups;
 		this.validator = validator;
+		this.estimator = estimator;
 	}
 
-	public Result<Page<Group>> get(int page, int size, Sort sort, Example<Group> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<Group>> get(int page, int size, Sort sort, Example<Group> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<Group> pageResult = groups.findAll(filter, request);
+		Slice<Group> sliceResult = count
+				? groups.findAll(filter, request)
+				: SliceUtil.of(groups.findBy(filter, query -> query.sortBy(sort).limit(size).scroll(SliceUtil.position(request))), request);
 
-		return new Result<>(pageResult, false, "Groups data", 0, Result.Code.OK);
+		return new Result<>(sliceResult, false, "Groups data", 0, Result.Code.OK);
 
 	}
 
+	public long estimate(Example<Group> filter) {
+
+		return estimator.estimate(filter, () -> groups.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<Group>> get(String cursor, int size, Sort sort, Example<Group> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, Group.class);
+			Sort order = CursorUtil.withTieBreaker(sort, Group.class);
+
+			Window<Group> window = groups.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Groups data", 0, Result.Code.OK);
+
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional(readOnly = true)
 	public Result<Group> get(Long id) {
 
 		Group result = groups.findById(id).orElse(null);
@@ -44,4 +84,19 @@ public class GroupService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<Group>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<Group> result = groups.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, Group::getId), false, "Groups data", 0, Result.Code.OK);
+
+	}
+
 }
@@ -0,0 +1,174 @@
+package com.pamarcar.api.service;
+
+import com.pamarcar.api.model.OutboxMessage;
+import com.pamarcar.api.repository.OutboxMessageRepository;
+import com.pamarcar.api.util.EventCodec;
+import com.pamarcar.api.util.MessageSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OutboxRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+	private static final long INITIAL_BACKOFF = Duration.ofSeconds(1).toMillis();
+	private static final long MAXIMUM_BACKOFF = Duration.ofMinutes(5).toMillis();
+	private static final long RETENTION = Duration.ofDays(1).toMillis();
+
+	private final OutboxMessageRepository messages;
+	private final MessageSender messageSender;
+	private final EventCodec codec;
+	private final TransactionTemplate transactions;
+	private final int batchSize;
+
+	private final AtomicLong lag = new AtomicLong();
+	private final AtomicLong pending = new AtomicLong();
+	private final Counter sent;
+	private final Counter failed;
+	private final Timer batches;
+
+	@Autowired
+	public OutboxRelay(OutboxMessageRepository messages, MessageSender messageSender, EventCodec codec, PlatformTransactionManager transactionManager, MeterRegistry registry, @Value("${outbox.batch-size:100}") int batchSize) {
+
+		this.messages = messages;
+		this.messageSender = messageSender;
+		this.codec = codec;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+
+		Gauge.builder("outbox.lag", lag, AtomicLong::get)
+				.description("Age of the oldest message not yet published")
+				.baseUnit("milliseconds")
+				.register(registry);
+
+		Gauge.builder("outbox.pending", pending, AtomicLong::get)
+				.description("Messages waiting to be published")
+				.register(registry);
+
+		this.sent = Counter.builder("outbox.sent").description("Messages published to the broker").register(registry);
+		this.failed = Counter.builder("outbox.failed").description("Failed publish attempts").register(registry);
+		this.batches = Timer.builder("outbox.batch").description("Time spent relaying one batch").register(registry);
+
+	}
+
+	@Scheduled(fixedDelayString = "${outbox.poll-interval:500}")
+	public void relay() {
+
+		Boolean full;
+
+		do {
+
+			full = batches.record(() -> transactions.execute(status -> drain()));
+
+		} while (Boolean.TRUE.equals(full));
+
+		Date oldest = messages.findOldestPending();
+
+		lag.set(oldest == null ? 0 : System.currentTimeMillis() - oldest.getTime());
+		pending.set(messages.countBySentAtIsNull());
+
+	}
+
+	@Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1H")
+	public void purge() {
+
+		messages.deleteSent(new Date(System.currentTimeMillis() - RETENTION));
+
+	}
+
+	// Returns whether another full batch may be waiting
+	private boolean drain() {
+
+		if (!messages.tryLockRelay()) {
+			return false;
+		}
+
+		List<OutboxMessage> pending = messages.findPending(batchSize);
+		Date now = new Date();
+		int ready = 0;
+
+		// Stops at the first message still backing off, nothing newer may overtake it
+		while (ready < pending.size() && !pending.get(ready).getNextAttemptAt().after(now)) {
+			ready++;
+		}
+
+		List<OutboxMessage> batch = pending.subList(0, ready);
+		List<CompletableFuture<Void>> confirms = new ArrayList<>(batch.size());
+
+		// The whole batch is in flight at once, bounded by the sender's confirm window
+		for (OutboxMessage message : batch) {
+
+			try {
+
+				confirms.add(messageSender.send(message.getDestination(), codec.message(message.getType(), message.getVersion(), message.getPayload())));
+
+			} catch (IOException e) {
+
+				confirms.add(CompletableFuture.failedFuture(e));
+
+			}
+
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+
+			OutboxMessage message = batch.get(i);
+
+			try {
+
+				confirms.get(i).join();
+
+			} catch (CompletionException e) {
+
+				// Later messages may have reached the broker too, they stay pending behind this one and are relayed again in order
+				retry(message, e.getCause() == null ? e : e.getCause());
+
+				return false;
+
+			}
+
+			message.setSentAt(new Date());
+			sent.increment();
+
+		}
+
+		return pending.size() == batchSize && ready == pending.size();
+
+	}
+
+	private void retry(OutboxMessage message, Throwable error) {
+
+		int attempts = message.getAttempts() + 1;
+		long backoff = Math.min(MAXIMUM_BACKOFF, INITIAL_BACKOFF << Math.min(attempts - 1, 20));
+		String reason = String.valueOf(error.getMessage());
+
+		message.setAttempts(attempts)
+				.setLastError(reason.substring(0, Math.min(1000, reason.length())))
+				.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+
+		failed.increment();
+		log.warn("Outbox message {} to {} failed (attempt {}), retrying in {} ms", message.getId(), message.getDestination(), attempts, backoff, error);
+
+	}
+
+}
@@ -1,35 +1,78 @@
 package com.pamarcar.api.service;
 
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Platform;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.repository.PlatformRepository;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.ReferenceDataCache;
+import com.pamarcar.api.util.SliceUtil;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Service
 public class PlatformService {
 
 	private final PlatformRepository platforms;
 	private final Validator validator;
+	private final CountEstimator estimator;
+	private final ReferenceDataCache referenceData;
 
 	@Autowired
-	public PlatformService(PlatformRepository platforms, Validator validator) {
+	public PlatformService(PlatformRepository platforms, Validator validator, CountEstimator estimator, ReferenceDataCache referenceData) {
 		this.platforms = platforms;
 		this.validator = validator;
+		this.estimator = estimator;
+		this.referenceData = referenceData;
 	}
 
-	public Result<Page<Platform>> get(int page, int size, Sort sort, Example<Platform> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<Platform>> get(int page, int size, Sort sort, Example<Platform> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<Platform> pageResult = platforms.findAll(filter, request);
+		Slice<Platform> sliceResult = count
+				? platforms.findAll(filter, request)
+				: SliceUtil.of(platforms.findBy(filter, query -> query.sortBy(sort).limit(size).scroll(SliceUtil.position(request))), request);
+
+		return new Result<>(sliceResult, false, "Platforms data", 0, Result.Code.OK);
+
+	}
+
+	public long estimate(Example<Platform> filter) {
+
+		return estimator.estimate(filter, () -> platforms.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<Platform>> get(String cursor, int size, Sort sort, Example<Platform> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, Platform.class);
+			Sort order = CursorUtil.withTieBreaker(sort, Platform.class);
+
+			Window<Platform> window = platforms.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Platforms data", 0, Result.Code.OK);
 
-		return new Result<>(pageResult, false, "Platforms data", 0, Result.Code.OK);
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
 
 	}
 
+	@Transactional(readOnly = true)
 	public Result<Platform> get(Long id) {
 
 		Platform result = platforms.findById(id).orElse(null);
@@ -44,6 +87,21 @@ public class PlatformService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<Platform>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<Platform> result = platforms.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, Platform::getId), false, "Platforms data", 0, Result.Code.OK);
+
+	}
+
 	public Result<Platform> create(Platform platform) {
 
 		try {
@@ -58,6 +116,8 @@ public class PlatformService {
 
 			Platform new_registry = platforms.save(platform);
 
+			referenceData.invalidate(Platform.class);
+
 			return new Result<>(new_registry, false, "Platform created", 0, Result.Code.CREATED);
 
 		} catch (Exception e) {
@@ -0,0 +1,179 @@
+package com.pamarcar.api.service;
+
+import com.pamarcar.api.model.AuthenticatedUser;
+import com.pamarcar.api.model.RefreshToken;
+import com.pamarcar.api.model.Result;
+import com.pamarcar.api.model.Session;
+import com.pamarcar.api.model.User;
+import com.pamarcar.api.repository.RefreshTokenRepository;
+import com.pamarcar.api.repository.UserRepository;
+import com.pamarcar.api.util.TokenIssuer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+
+	public static final String HEADER = "Refresh-Token";
+
+	// Sliding idle window, renewed on every rotation, capped by the absolute session lifetime
+	private static final long IDLE_DURATION = Duration.ofDays(14).toMillis();
+	private static final long SESSION_DURATION = Duration.ofDays(30).toMillis();
+
+	private final RefreshTokenRepository refreshTokens;
+	private final UserRepository users;
+	private final AuthenticationService authentication;
+	private final RevocationService revocations;
+	private final TokenIssuer issuer;
+	private final SecureRandom random = new SecureRandom();
+
+	@Autowired
+	public RefreshTokenService(RefreshTokenRepository refreshTokens, UserRepository users, AuthenticationService authentication, RevocationService revocations, TokenIssuer issuer) {
+		this.refreshTokens = refreshTokens;
+		this.users = users;
+		this.authentication = authentication;
+		this.revocations = revocations;
+		this.issuer = issuer;
+	}
+
+	@Transactional
+	public String issue(AuthenticatedUser user) {
+
+		long now = System.currentTimeMillis();
+
+		return create(users.getReferenceById(user.getId()), UUID.randomUUID().toString(), now, new Date(now + SESSION_DURATION));
+
+	}
+
+	// Exchanges a refresh token for a new access token and a rotated refresh token, without any password hashing
+	@Transactional
+	public Result<Session> refresh(String token) {
+
+		if (token == null || token.isBlank()) {
+
+			return new Result<>(null, false, "Refresh token required", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		RefreshToken current = refreshTokens.findByTokenHash(hash(token));
+
+		if (current == null) {
+
+			return new Result<>(null, false, "Invalid refresh token", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		long now = System.currentTimeMillis();
+
+		// A token presented twice means it leaked, so nobody holding this family can keep the session
+		if (current.getUsedAt() != null || current.getRevokedAt() != null) {
+
+			refreshTokens.revokeFamily(current.getFamily(), new Date(now));
+			return new Result<>(null, false, "Refresh token reuse detected", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		if (current.getExpiresAt().getTime() <= now || current.getSessionExpiresAt().getTime() <= now) {
+
+			return new Result<>(null, false, "Refresh token expired", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		User user = current.getUser();
+
+		// Every token of a family shares the session deadline, so this is when the family was first issued
+		long familyIssuedAt = current.getSessionExpiresAt().getTime() - SESSION_DURATION;
+
+		if (revocations.isRevoked(user.getId(), familyIssuedAt)) {
+
+			refreshTokens.revokeFamily(current.getFamily(), new Date(now));
+			return new Result<>(null, false, "Refresh token revoked", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		AuthenticatedUser details;
+
+		try {
+
+			details = (AuthenticatedUser) authentication.loadUserByUsername(user.getEmail());
+
+		} catch (UsernameNotFoundException e) {
+
+			return new Result<>(null, false, "Invalid refresh token", 0, Result.Code.UNAUTHORIZED);
+
+		}
+
+		current.setUsedAt(new Date(now));
+
+		String next = create(user, current.getFamily(), now, current.getSessionExpiresAt());
+
+		return new Result<>(new Session(issuer.issue(details), next), false, "Session refreshed", 0, Result.Code.OK);
+
+	}
+
+	@Transactional
+	public void revoke(String token) {
+
+		if (token == null || token.isBlank()) {
+
+			return;
+
+		}
+
+		RefreshToken current = refreshTokens.findByTokenHash(hash(token));
+
+		if (current != null) {
+
+			refreshTokens.revokeFamily(current.getFamily(), new Date());
+
+		}
+
+	}
+
+	private String create(User user, String family, long now, Date sessionExpiresAt) {
+
+		byte[] bytes = new byte[32];
+		random.nextBytes(bytes);
+
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+		RefreshToken refreshToken = new RefreshToken()
+				.setTokenHash(hash(token))
+				.setFamily(family)
+				.setUser(user)
+				.setExpiresAt(new Date(Math.min(now + IDLE_DURATION, sessionExpiresAt.getTime())))
+				.setSessionExpiresAt(sessionExpiresAt);
+
+		refreshTokens.save(refreshToken);
+
+		return token;
+
+	}
+
+	private static String hash(String token) {
+
+		try {
+
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+
+		} catch (NoSuchAlgorithmException e) {
+
+			throw new IllegalStateException(e);
+
+		}
+
+	}
+
+}
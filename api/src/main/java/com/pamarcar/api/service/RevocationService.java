@@ -0,0 +1,206 @@
+package com.pamarcar.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pamarcar.api.configuration.RabbitMQConfiguration;
+import com.pamarcar.api.model.Result;
+import com.pamarcar.api.model.Revocation;
+import com.pamarcar.api.model.TokenPrincipal;
+import com.pamarcar.api.repository.RefreshTokenRepository;
+import com.pamarcar.api.repository.RevocationRepository;
+import com.pamarcar.api.util.BloomFilter;
+import com.pamarcar.api.util.MessageSender;
+import com.pamarcar.api.util.TokenIssuer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RevocationService {
+
+	private static final Logger log = LoggerFactory.getLogger(RevocationService.class);
+
+	private static final int BLOOM_MIN_CAPACITY = 1024;
+	private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+	private final RevocationRepository revocations;
+	private final RefreshTokenRepository refreshTokens;
+	private final MessageSender messageSender;
+	private final ObjectMapper mapper;
+
+	// Token id -> expiration, user id -> tokens issued up to this instant are revoked
+	private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+	private final Map<Long, Long> users = new ConcurrentHashMap<>();
+	private volatile BloomFilter filter = new BloomFilter(BLOOM_MIN_CAPACITY, BLOOM_FALSE_POSITIVE_RATE);
+
+	@Autowired
+	public RevocationService(RevocationRepository revocations, RefreshTokenRepository refreshTokens, MessageSender messageSender, ObjectMapper mapper) {
+		this.revocations = revocations;
+		this.refreshTokens = refreshTokens;
+		this.messageSender = messageSender;
+		this.mapper = mapper;
+	}
+
+	@PostConstruct
+	public void load() {
+
+		for (Revocation revocation : revocations.findAllByExpiresAtAfter(new Date())) {
+
+			apply(Event.of(revocation));
+
+		}
+
+		log.info("Loaded {} token and {} user revocations", tokens.size(), users.size());
+
+	}
+
+	// Hot path: no database access, the exact set is only consulted when the bloom filter matches
+	public boolean isRevoked(TokenPrincipal principal) {
+
+		if (isRevoked(principal.id(), principal.issuedAt())) {
+
+			return true;
+
+		}
+
+		return principal.tokenId() != null && filter.mightContain(principal.tokenId()) && tokens.containsKey(principal.tokenId());
+
+	}
+
+	// Whether everything the user was issued at the given instant has been revoked since
+	public boolean isRevoked(Long userId, long issuedAt) {
+
+		if (users.isEmpty()) {
+
+			return false;
+
+		}
+
+		Long cutoff = users.get(userId);
+
+		return cutoff != null && issuedAt <= cutoff;
+
+	}
+
+	public Result<Revocation> revokeToken(TokenPrincipal principal) {
+
+		Revocation revocation = new Revocation()
+				.setTokenId(principal.tokenId())
+				.setExpiresAt(new Date(principal.expiresAt()));
+
+		return publish(revocations.save(revocation), "Session closed");
+
+	}
+
+	@Transactional
+	public Result<Revocation> revokeUser(Long userId) {
+
+		long now = System.currentTimeMillis();
+
+		refreshTokens.revokeUser(userId, new Date(now));
+
+		Revocation revocation = new Revocation()
+				.setUserId(userId)
+				.setIssuedBefore(new Date(now))
+				.setExpiresAt(new Date(now + TokenIssuer.TOKEN_DURATION));
+
+		return publish(revocations.save(revocation), "User sessions closed");
+
+	}
+
+	@RabbitListener(queues = "#{tokenRevocationQueue.name}")
+	public void receive(String message) throws JsonProcessingException {
+
+		apply(mapper.readValue(message, Event.class));
+
+	}
+
+	@Scheduled(fixedDelayString = "PT5M", initialDelayString = "PT5M")
+	public void purge() {
+
+		long now = System.currentTimeMillis();
+
+		synchronized (this) {
+
+			tokens.values().removeIf(expiresAt -> expiresAt < now);
+			users.values().removeIf(issuedBefore -> issuedBefore + TokenIssuer.TOKEN_DURATION < now);
+
+			// Bloom filters cannot drop entries, so expired token ids only leave it on rebuild
+			BloomFilter rebuilt = new BloomFilter(Math.max(BLOOM_MIN_CAPACITY, tokens.size() * 2), BLOOM_FALSE_POSITIVE_RATE);
+			tokens.keySet().forEach(rebuilt::add);
+			filter = rebuilt;
+
+		}
+
+		revocations.deleteExpired(new Date(now));
+
+	}
+
+	private Result<Revocation> publish(Revocation revocation, String message) {
+
+		Event event = Event.of(revocation);
+
+		apply(event);
+
+		// Already persisted, other nodes pick it up on their next start
+		try {
+
+			messageSender.publish(RabbitMQConfiguration.TOKEN_REVOCATION_EXCHANGE, mapper.writeValueAsString(event))
+					.whenComplete((ignored, error) -> {
+
+						if (error != null) {
+							log.warn("Could not broadcast revocation {}", revocation.getId(), error);
+						}
+
+					});
+
+		} catch (Exception e) {
+
+			log.warn("Could not broadcast revocation {}", revocation.getId(), e);
+
+		}
+
+		return new Result<>(revocation, false, message, 0, Result.Code.OK);
+
+	}
+
+	private synchronized void apply(Event event) {
+
+		if (event.tokenId() != null) {
+
+			tokens.put(event.tokenId(), event.expiresAt());
+			filter.add(event.tokenId());
+
+		}
+
+		if (event.userId() != null) {
+
+			users.merge(event.userId(), event.issuedBefore(), Math::max);
+
+		}
+
+	}
+
+	record Event(String tokenId, Long userId, long issuedBefore, long expiresAt) {
+
+		static Event of(Revocation revocation) {
+			return new Event(
+					revocation.getTokenId(),
+					revocation.getUserId(),
+					revocation.getIssuedBefore() == null ? 0 : revocation.getIssuedBefore().getTime(),
+					revocation.getExpiresAt().getTime()
+			);
+		}
+
+	}
+
+}
@@ -1,25 +1,24 @@
 package com.pamarcar.api.service;
 
-import com.pamarcar.api.model.User;
-import com.pamarcar.api.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.pamarcar.api.model.TokenPrincipal;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class SecurityService {
 
-	private final UserRepository userRepository;
+	// Answered from the token claims alone, no database access on the authorization path
+	public boolean isSelf(Long id, Object principal) {
 
-	@Autowired
-	public SecurityService(UserRepository userRepository) {
-		this.userRepository = userRepository;
-	}
+		return principal instanceof TokenPrincipal token && token.id() != null && token.id().equals(id);
 
-	public boolean isSelf(Long id, String email) {
+	}
 
-		User user = userRepository.findByEmail(email);
+	// Multi-gets are all or nothing, a single id of another user denies the whole request
+	public boolean isSelfAll(List<Long> ids, Object principal) {
 
-		return user != null && user.getId().equals(id);
+		return ids != null && !ids.isEmpty() && ids.stream().allMatch(id -> isSelf(id, principal));
 
 	}
 
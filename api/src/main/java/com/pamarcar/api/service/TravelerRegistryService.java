@@ -1,49 +1,106 @@
 package com.pamarcar.api.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.pamarcar.api.configuration.RabbitMQConfiguration;
+import com.pamarcar.api.model.AccessProvisioningRequested;
 import com.pamarcar.api.model.Booking;
+import com.pamarcar.api.model.Lookup;
+import com.pamarcar.api.model.OnTravelerRegistryCreate;
+import com.pamarcar.api.model.RegistrationCompleted;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.model.TravelerRegistry;
+import com.pamarcar.api.model.TravelerRegistryBatch;
+import com.pamarcar.api.model.TravelerRegistryExport;
+import com.pamarcar.api.model.TravelerRegistrySummary;
 import com.pamarcar.api.repository.BookingRepository;
 import com.pamarcar.api.repository.TravelerRegistryRepository;
-import com.pamarcar.api.util.MessageSender;
-import jakarta.transaction.Transactional;
+import com.pamarcar.api.util.ContentStore;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.ExportWriter;
+import com.pamarcar.api.util.Outbox;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class TravelerRegistryService {
 
+	private static final Logger log = LoggerFactory.getLogger(TravelerRegistryService.class);
+
 	private final TravelerRegistryRepository registries;
 	private final BookingRepository bookings;
 	private final Validator validator;
-	private final MessageSender messageSender;
-	private final ObjectMapper mapper;
+	private final Outbox outbox;
+	private final CountEstimator estimator;
+	private final ContentStore contents;
+	private final ExportWriter exporter;
 
 	@Autowired
-	public TravelerRegistryService(TravelerRegistryRepository registries, BookingRepository bookings, Validator validator, MessageSender messageSender, ObjectMapper mapper) {
+	public TravelerRegistryService(TravelerRegistryRepository registries, BookingRepository bookings, Validator validator, Outbox outbox, CountEstimator estimator, ContentStore contents, ExportWriter exporter) {
 		this.registries = registries;
 		this.bookings = bookings;
 		this.validator = validator;
-		this.messageSender = messageSender;
-		this.mapper = mapper;
+		this.outbox = outbox;
+		this.estimator = estimator;
+		this.contents = contents;
+		this.exporter = exporter;
 	}
 
-	public Result<Page<TravelerRegistry>> get(int page, int size, Sort sort, Example<TravelerRegistry> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<TravelerRegistrySummary>> get(int page, int size, Sort sort, Example<TravelerRegistry> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<TravelerRegistry> pageResult = registries.findAll(filter, request);
+		Slice<TravelerRegistrySummary> sliceResult = count
+				? registries.findSummaries(request)
+				: registries.findSummarySlice(request);
 
-		return new Result<>(pageResult, false, "Traveler registries data", 0, Result.Code.OK);
+		return new Result<>(sliceResult, false, "Traveler registries data", 0, Result.Code.OK);
 
 	}
 
+	public long estimate(Example<TravelerRegistry> filter) {
+
+		return estimator.estimate(filter, () -> registries.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<TravelerRegistry>> get(String cursor, int size, Sort sort, Example<TravelerRegistry> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, TravelerRegistry.class);
+			Sort order = CursorUtil.withTieBreaker(sort, TravelerRegistry.class);
+
+			Window<TravelerRegistry> window = registries.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Traveler registries data", 0, Result.Code.OK);
+
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional(readOnly = true)
 	public Result<TravelerRegistry> get(Long id) {
 
 		TravelerRegistry result = registries.findById(id).orElse(null);
@@ -58,37 +115,182 @@ public class TravelerRegistryService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<TravelerRegistry>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<TravelerRegistry> result = registries.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, TravelerRegistry::getId), false, "Traveler registries data", 0, Result.Code.OK);
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<ContentStore.Blob> getSignature(Long id) {
+
+		try {
+
+			ContentStore.Blob result = contents.get(registries.findSignatureHashById(id).orElse(null)).orElse(null);
+
+			if (result == null) {
+
+				return new Result<>(null, false, "No signature", 0, Result.Code.NOT_FOUND);
+
+			}
+
+			return new Result<>(result, false, "Signature data", 0, Result.Code.OK);
+
+		} catch (IOException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional(readOnly = true)
+	public long export(ExportWriter.Format format, OutputStream out) throws IOException {
+
+		try (Stream<TravelerRegistryExport> rows = registries.streamExport()) {
+
+			return exporter.write(rows, TravelerRegistryExport.class, format, out);
+
+		}
+
+	}
+
 	@Transactional
 	public Result<TravelerRegistry> create(TravelerRegistry registry) {
 
 		try {
 
-			Booking booking = bookings.findByIdAndSecurityCode(registry.getBooking().getId(), registry.getBooking().getSecurityCode());
+			Booking booking = bookings.findLockedByIdAndSecurityCode(registry.getBooking().getId(), registry.getBooking().getSecurityCode());
 
 			if (booking == null) {
 				return new Result<>(null, false, "Booking not found", 0, Result.Code.NOT_FOUND);
 			}
 
+			registry.setSignatureHash(contents.put(decodeSignature(registry.getSignature())));
+
 			TravelerRegistry new_registry = registries.save(registry);
 
-			ArrayList<TravelerRegistry> travelerRegistries = registries.findAllByBookingId(booking.getId());
+			register(booking, 1);
 
-			// Send message to create access link
-			if (travelerRegistries.size() == 1) {
+			return new Result<>(new_registry, false, "Traveler registry created", 0, Result.Code.CREATED);
 
-				messageSender.send(RabbitMQConfiguration.CREATE_ACCESS_QUEUE, mapper.writeValueAsString(booking));
+		} catch (Exception e) {
 
+			// The error is answered, not thrown, so the transaction has to be marked by hand
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			log.warn("Could not create traveler registry", e);
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional
+	public Result<List<TravelerRegistry>> create(TravelerRegistryBatch batch) {
+
+		if (batch.booking() == null || batch.travelers() == null || batch.travelers().isEmpty()) {
+			return new Result<>(null, false, "A booking and at least one traveler are required", 0, Result.Code.BAD_REQUEST);
+		}
+
+		if (batch.travelers().size() > TravelerRegistryBatch.MAXIMUM_TRAVELERS) {
+			return new Result<>(null, false, "At most " + TravelerRegistryBatch.MAXIMUM_TRAVELERS + " travelers can be registered at once", 0, Result.Code.BAD_REQUEST);
+		}
+
+		Booking booking = bookings.findLockedByIdAndSecurityCode(batch.booking().getId(), batch.booking().getSecurityCode());
+
+		if (booking == null) {
+			return new Result<>(null, false, "Booking not found", 0, Result.Code.NOT_FOUND);
+		}
+
+		int registered = booking.getRegistrations() == null ? 0 : booking.getRegistrations();
+
+		// The booking row is locked, so concurrent batches cannot both fit in the same free places
+		if (booking.getGuests() != null && registered + batch.travelers().size() > booking.getGuests()) {
+			return new Result<>(null, false, "The booking has " + Math.max(0, booking.getGuests() - registered) + " of " + booking.getGuests() + " guests left to register", 0, Result.Code.BAD_REQUEST);
+		}
+
+		List<String> violations = new ArrayList<>();
+
+		for (int i = 0; i < batch.travelers().size(); i++) {
+
+			// Validated against the booking reference, the same shape the single create receives
+			TravelerRegistry traveler = batch.travelers().get(i).setBooking(new Booking().setId(booking.getId()).setSecurityCode(booking.getSecurityCode()));
+
+			for (ConstraintViolation<TravelerRegistry> violation : validator.validate(traveler, OnTravelerRegistryCreate.class)) {
+				violations.add("travelers[" + i + "]." + violation.getPropertyPath() + ": " + violation.getMessage());
 			}
 
-			return new Result<>(new_registry, false, "Traveler registry created", 0, Result.Code.CREATED);
+		}
+
+		if (!violations.isEmpty()) {
+			return new Result<>(null, true, String.join("; ", violations), 0, Result.Code.BAD_REQUEST);
+		}
+
+		try {
+
+			for (TravelerRegistry traveler : batch.travelers()) {
+
+				traveler.setBooking(booking);
+				traveler.setSignatureHash(contents.put(decodeSignature(traveler.getSignature())));
+
+			}
+
+			List<TravelerRegistry> new_registries = registries.saveAll(batch.travelers());
+
+			register(booking, new_registries.size());
+
+			return new Result<>(new_registries, false, "Traveler registries created", 0, Result.Code.CREATED);
 
 		} catch (Exception e) {
 
-			e.printStackTrace();
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			log.warn("Could not create traveler registries for booking {}", booking.getId(), e);
 			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
 
 		}
 
 	}
 
+	// The booking row is locked by the caller, so each threshold is crossed by exactly one registration
+	private void register(Booking booking, int travelers) throws JsonProcessingException {
+
+		int before = booking.getRegistrations() == null ? 0 : booking.getRegistrations();
+		int after = before + travelers;
+
+		booking.setRegistrations(after);
+
+		// Send message to create access link
+		if (before == 0) {
+
+			outbox.enqueue(RabbitMQConfiguration.CREATE_ACCESS_QUEUE, AccessProvisioningRequested.of(booking));
+
+		}
+
+		if (booking.getGuests() != null && before < booking.getGuests() && after >= booking.getGuests()) {
+
+			outbox.enqueue(RabbitMQConfiguration.REGISTRATION_COMPLETE_QUEUE, new RegistrationCompleted(booking.getId(), booking.getGuests(), after));
+
+		}
+
+	}
+
+	// The register form sends the canvas as a data URL (data:image/png;base64,...)
+	public static byte[] decodeSignature(String signature) {
+
+		int comma = signature.indexOf(',');
+		String data = signature.startsWith("data:") && comma > 0 ? signature.substring(comma + 1) : signature;
+
+		return Base64.getDecoder().decode(data.strip());
+
+	}
+
 }
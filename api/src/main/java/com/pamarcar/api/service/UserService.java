@@ -1,17 +1,24 @@
 package com.pamarcar.api.service;
 
+import com.pamarcar.api.model.Lookup;
 import com.pamarcar.api.model.Result;
 import com.pamarcar.api.model.Role;
 import com.pamarcar.api.model.User;
 import com.pamarcar.api.repository.RoleRepository;
 import com.pamarcar.api.repository.UserRepository;
+import com.pamarcar.api.util.CountEstimator;
+import com.pamarcar.api.util.CursorUtil;
+import com.pamarcar.api.util.SliceUtil;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Service
 public class UserService {
@@ -20,25 +27,57 @@ public class UserService {
 	private final RoleRepository roles;
 	private final Validator validator;
 	private final PasswordEncoder passwordEncoder;
+	private final CountEstimator estimator;
 
 	@Autowired
-	public UserService(UserRepository users, RoleRepository roles, Validator validator, PasswordEncoder encoder) {
+	public UserService(UserRepository users, RoleRepository roles, Validator validator, PasswordEncoder encoder, CountEstimator estimator) {
 		this.users = users;
 		this.roles = roles;
 		this.validator = validator;
 		this.passwordEncoder = encoder;
+		this.estimator = estimator;
 	}
 
-	public Result<Page<User>> get(int page, int size, Sort sort, Example<User> filter) {
+	@Transactional(readOnly = true)
+	public Result<Slice<User>> get(int page, int size, Sort sort, Example<User> filter, boolean count) {
 
 		Pageable request = PageRequest.of(page, size, sort);
 
-		Page<User> pageResult = users.findAll(filter, request);
+		Slice<User> sliceResult = count
+				? users.findAll(filter, request)
+				: SliceUtil.of(users.findBy(filter, query -> query.sortBy(sort).limit(size).scroll(SliceUtil.position(request))), request);
 
-		return new Result<>(pageResult, false, "Users data", 0, Result.Code.OK);
+		return new Result<>(sliceResult, false, "Users data", 0, Result.Code.OK);
 
 	}
 
+	public long estimate(Example<User> filter) {
+
+		return estimator.estimate(filter, () -> users.count(filter));
+
+	}
+
+	@Transactional(readOnly = true)
+	public Result<Window<User>> get(String cursor, int size, Sort sort, Example<User> filter) {
+
+		try {
+
+			ScrollPosition position = CursorUtil.decode(cursor, User.class);
+			Sort order = CursorUtil.withTieBreaker(sort, User.class);
+
+			Window<User> window = users.findBy(filter, query -> query.sortBy(order).limit(size).scroll(position));
+
+			return new Result<>(window, false, "Users data", 0, Result.Code.OK);
+
+		} catch (IllegalArgumentException e) {
+
+			return new Result<>(null, true, e.getLocalizedMessage(), 0, Result.Code.BAD_REQUEST);
+
+		}
+
+	}
+
+	@Transactional(readOnly = true)
 	public Result<User> get(Long id) {
 
 		User result = users.findById(id).orElse(null);
@@ -53,6 +92,21 @@ public class UserService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public Result<List<Lookup<User>>> get(List<Long> ids) {
+
+		if (!Lookup.isValid(ids)) {
+
+			return new Result<>(null, false, "Between 1 and " + Lookup.MAXIMUM_IDS + " ids are required", 0, Result.Code.BAD_REQUEST);
+
+		}
+
+		List<User> result = users.findAllById(new LinkedHashSet<>(ids));
+
+		return new Result<>(Lookup.inOrder(ids, result, User::getId), false, "Users data", 0, Result.Code.OK);
+
+	}
+
 	public Result<User> create(User user) {
 
 		try {
@@ -2,35 +2,39 @@ package com.pamarcar.api.util;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.JwtBuilder;
-import io.jsonwebtoken.Jwts;
+import com.pamarcar.api.model.AuthenticatedUser;
+import com.pamarcar.api.service.RefreshTokenService;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import java.io.IOException;
-import java.security.Key;
-import java.time.Duration;
-import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
-	private static final long TOKEN_DURATION = Duration.ofMinutes(60).toMillis();
+	public static final RequestMatcher LOGIN = new AntPathRequestMatcher("/login", "POST");
+
 	private final AuthenticationManager manager;
-	private final Key key;
+	private final TokenIssuer issuer;
+	private final LoginExecutor logins;
+	private final RefreshTokenService refreshTokens;
 
-	public AuthenticationFilter(AuthenticationManager manager, Key key) {
+	public AuthenticationFilter(AuthenticationManager manager, TokenIssuer issuer, LoginExecutor logins, RefreshTokenService refreshTokens) {
 		this.manager = manager;
-		this.key = key;
+		this.issuer = issuer;
+		this.logins = logins;
+		this.refreshTokens = refreshTokens;
+		setRequiresAuthenticationRequestMatcher(LOGIN);
 	}
 
 	@Override
@@ -40,7 +44,7 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
 			JsonNode credentials = new ObjectMapper().readValue(request.getInputStream(), JsonNode.class);
 
-			return manager.authenticate(new UsernamePasswordAuthenticationToken(credentials.get("email").textValue(), credentials.get("password").textValue()));
+			return logins.authenticate(manager, new UsernamePasswordAuthenticationToken(credentials.get("email").textValue(), credentials.get("password").textValue()));
 
 		} catch (IOException ex) {
 
@@ -53,13 +57,26 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 	@Override
 	protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain, Authentication authResult) {
 
-		long now = System.currentTimeMillis();
+		AuthenticatedUser user = (AuthenticatedUser) authResult.getPrincipal();
+
+		response.addHeader("Authentication", String.format("Bearer %s", issuer.issue(user)));
+		response.addHeader(RefreshTokenService.HEADER, refreshTokens.issue(user));
+
+	}
+
+	@Override
+	protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
+
+		if (failed instanceof LoginRejectedException rejected) {
 
-		List<String> authorities = authResult.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+			SecurityContextHolder.clearContext();
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfter()));
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
 
-		JwtBuilder tokenBuilder = Jwts.builder().setSubject(((User) authResult.getPrincipal()).getUsername()).setIssuedAt(new Date(now)).setExpiration(new Date(now + TOKEN_DURATION)).claim("roles", authorities).signWith(key);
+		}
 
-		response.addHeader("Authentication", String.format("Bearer %s", tokenBuilder.compact()));
+		super.unsuccessfulAuthentication(request, response, failed);
 
 	}
 
@@ -1,31 +1,38 @@
 package com.pamarcar.api.util;
 
+import com.pamarcar.api.model.TokenAuthentication;
+import com.pamarcar.api.model.TokenPrincipal;
+import com.pamarcar.api.service.RevocationService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
 
 public class AuthorizationFilter extends BasicAuthenticationFilter {
 
-	private final SecretKey key;
+	private final JwtParser parser;
+	private final TokenCache tokens;
+	private final RevocationService revocations;
 
-	public AuthorizationFilter(AuthenticationManager manager, SecretKey key) {
+	public AuthorizationFilter(AuthenticationManager manager, KeyRing keys, TokenCache tokens, RevocationService revocations) {
 		super(manager);
-		this.key = key;
+		this.parser = Jwts.parser().keyLocator(keys).build();
+		this.tokens = tokens;
+		this.revocations = revocations;
 	}
 
 	@Override
@@ -42,9 +49,9 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
 
 			}
 
-			UsernamePasswordAuthenticationToken authentication = getAuthentication(header);
+			TokenAuthentication authentication = getAuthentication(header);
 
-			if (authentication != null) {
+			if (authentication != null && !revocations.isRevoked(authentication.getPrincipal())) {
 
 				SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -60,28 +67,44 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
 
 	}
 
-	private UsernamePasswordAuthenticationToken getAuthentication(String token) throws ExpiredJwtException {
+	private TokenAuthentication getAuthentication(String token) throws ExpiredJwtException {
 
 		try {
 
 			String jwt = token.replace("Bearer", "").trim();
 
-			Claims claims = Jwts.parser()
-					.verifyWith(key)
-					.build()
-					.parseSignedClaims(jwt)
-					.getPayload();
+			TokenAuthentication cached = tokens.get(jwt);
+
+			if (cached != null) {
+
+				return cached;
+
+			}
+
+			Claims claims = parser.parseSignedClaims(jwt).getPayload();
 
 			String user = claims.getSubject();
+			Long id = claims.get("uid", Long.class);
+
+			if (user == null || id == null || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+
+				return null;
+
+			}
 
 			@SuppressWarnings("unchecked")
 			List<String> roles = (List<String>) claims.get("roles");
 
 			List<GrantedAuthority> authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(String.join(",", roles));
 
-			return user == null ? null : new UsernamePasswordAuthenticationToken(user, jwt, authorities);
+			// The cached instance is shared between requests, so it does not keep the raw token as credentials
+			TokenAuthentication authentication = new TokenAuthentication(new TokenPrincipal(id, user, claims.getId(), claims.getIssuedAt().getTime(), claims.getExpiration().getTime()), authorities);
+
+			tokens.put(jwt, authentication, claims.getExpiration());
+
+			return authentication;
 
-		} catch (SignatureException | ClassCastException e) {
+		} catch (SignatureException | UnsupportedJwtException | ClassCastException e) {
 
 			return null;
 
@@ -0,0 +1,84 @@
+package com.pamarcar.api.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long mask;
+	private final int hashes;
+
+	public BloomFilter(int expected, double falsePositiveRate) {
+
+		long optimal = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		long size = Long.highestOneBit(Math.max(64, optimal - 1)) << 1;
+
+		this.bits = new AtomicLongArray((int) (size >>> 6));
+		this.mask = size - 1;
+		this.hashes = Math.max(1, (int) Math.round((double) size / Math.max(1, expected) * Math.log(2)));
+
+	}
+
+	public void add(CharSequence value) {
+
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+
+		for (int i = 0; i < hashes; i++) {
+
+			long bit = (first + (long) i * second) & mask;
+			int index = (int) (bit >>> 6);
+			long flag = 1L << bit;
+
+			long current;
+
+			do {
+
+				current = bits.get(index);
+
+			} while ((current & flag) == 0 && !bits.compareAndSet(index, current, current | flag));
+
+		}
+
+	}
+
+	public boolean mightContain(CharSequence value) {
+
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+
+		for (int i = 0; i < hashes; i++) {
+
+			long bit = (first + (long) i * second) & mask;
+
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+
+				return false;
+
+			}
+
+		}
+
+		return true;
+
+	}
+
+	// 64-bit FNV-1a, split into the two halves used for double hashing
+	private static long hash(CharSequence value) {
+
+		long hash = 0xcbf29ce484222325L;
+
+		for (int i = 0; i < value.length(); i++) {
+
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+
+		}
+
+		return hash;
+
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.pamarcar.api.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ContentStore {
+
+	private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+	private static final String COMPRESSED = ".gz";
+
+	private final Path root;
+	private final boolean compress;
+
+	@Autowired
+	public ContentStore(@Value("${storage.content.path}") String root, @Value("${storage.content.compress:false}") boolean compress) throws IOException {
+		this.root = Files.createDirectories(Path.of(root));
+		this.compress = compress;
+	}
+
+	// Files are named after the SHA-256 of their content, so writing the same bytes twice is a no-op
+	public String put(byte[] content) throws IOException {
+
+		String hash = hash(content);
+
+		if (Files.exists(resolve(hash, true)) || Files.exists(resolve(hash, false))) {
+			return hash;
+		}
+
+		Path target = resolve(hash, compress);
+		Path directory = Files.createDirectories(target.getParent());
+		Path temporary = Files.createTempFile(directory, hash, ".tmp");
+
+		try {
+
+			try (OutputStream out = compress ? new GZIPOutputStream(Files.newOutputStream(temporary)) : Files.newOutputStream(temporary)) {
+				out.write(content);
+			}
+
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+		} finally {
+
+			Files.deleteIfExists(temporary);
+
+		}
+
+		return hash;
+
+	}
+
+	public Optional<Blob> get(String hash) throws IOException {
+
+		if (hash == null || !HASH.matcher(hash).matches()) {
+			return Optional.empty();
+		}
+
+		// Compression can be toggled at any time, so both layouts are looked up
+		for (boolean compressed : new boolean[]{compress, !compress}) {
+
+			Path path = resolve(hash, compressed);
+
+			if (Files.isRegularFile(path)) {
+				return Optional.of(new Blob(hash, path, compressed, Files.size(path)));
+			}
+
+		}
+
+		return Optional.empty();
+
+	}
+
+	private Path resolve(String hash, boolean compressed) {
+
+		return root.resolve(hash.substring(0, 2)).resolve(compressed ? hash + COMPRESSED : hash);
+
+	}
+
+	private static String hash(byte[] content) {
+
+		try {
+
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+		} catch (NoSuchAlgorithmException e) {
+
+			throw new IllegalStateException(e);
+
+		}
+
+	}
+
+	public record Blob(String hash, Path path, boolean compressed, long size) {
+
+		public String etag(boolean encoded) {
+			return "\"" + hash + (compressed && encoded ? "-gzip" : "") + "\"";
+		}
+
+		public MediaType contentType() {
+
+			try (InputStream in = new BufferedInputStream(open())) {
+
+				String type = URLConnection.guessContentTypeFromStream(in);
+
+				return type == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(type);
+
+			} catch (IOException e) {
+
+				return MediaType.APPLICATION_OCTET_STREAM;
+
+			}
+
+		}
+
+		// Stored bytes go out through FileChannel.transferTo, only inflating when the client cannot take gzip
+		public void transfer(boolean encoded, OutputStream out) throws IOException {
+
+			if (compressed && !encoded) {
+
+				try (InputStream in = open()) {
+					in.transferTo(out);
+				}
+
+				return;
+
+			}
+
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+				WritableByteChannel target = Channels.newChannel(out);
+				long position = 0;
+
+				while (position < size) {
+					position += channel.transferTo(position, size - position, target);
+				}
+
+			}
+
+		}
+
+		private InputStream open() throws IOException {
+
+			InputStream in = Files.newInputStream(path);
+
+			return compressed ? new GZIPInputStream(in) : in;
+
+		}
+
+	}
+
+}
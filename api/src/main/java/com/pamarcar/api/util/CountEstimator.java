@@ -0,0 +1,132 @@
+package com.pamarcar.api.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Example;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Component
+public class CountEstimator {
+
+	private static final long MAXIMUM_SIZE = 1_000;
+	private static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+
+	private final JdbcTemplate jdbc;
+	private final SessionFactoryImplementor sessionFactory;
+	private final Cache<String, Long> cache;
+
+	@Autowired
+	public CountEstimator(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+
+		this.jdbc = jdbc;
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(MAXIMUM_SIZE)
+				.expireAfterWrite(TIME_TO_LIVE)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(registry, cache, "pagination.estimates");
+
+	}
+
+	public long estimate(Example<?> filter, Supplier<Long> counter) {
+
+		Class<?> type = filter.getProbeType();
+		String key = describe(filter.getProbe());
+
+		return cache.get(type.getName() + "?" + key, ignored -> {
+
+			// Unfiltered listings read the planner row estimate instead of scanning the table
+			if (key.isEmpty()) {
+
+				long tuples = reltuples(type);
+
+				if (tuples > 0) {
+					return tuples;
+				}
+
+			}
+
+			return counter.get();
+
+		});
+
+	}
+
+	private long reltuples(Class<?> type) {
+
+		EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+
+		if (!(persister instanceof AbstractEntityPersister entity)) {
+			return -1;
+		}
+
+		Long tuples = jdbc.queryForObject("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, entity.getTableName());
+
+		// Never analyzed tables report -1 (or 0 on older servers)
+		return tuples == null ? -1 : tuples;
+
+	}
+
+	// Same values Query by Example turns into predicates; empty strings are the controllers' "no filter" default
+	private static String describe(Object probe) {
+
+		StringBuilder key = new StringBuilder();
+
+		ReflectionUtils.doWithFields(probe.getClass(), field -> {
+
+			ReflectionUtils.makeAccessible(field);
+
+			Object value = field.get(probe);
+
+			if (value == null || value instanceof Collection<?> || "".equals(value)) {
+				return;
+			}
+
+			key.append(field.getName()).append('=').append(value).append('&');
+
+		}, field -> !Modifier.isStatic(field.getModifiers()));
+
+		return key.toString();
+
+	}
+
+	// How a listing reports its total: an exact count query, a cached estimate, or nothing at all
+	public enum Mode {
+
+		EXACT,
+		ESTIMATE,
+		NONE;
+
+		public static Mode of(String value) {
+
+			for (Mode mode : values()) {
+
+				if (mode.name().equalsIgnoreCase(value)) {
+					return mode;
+				}
+
+			}
+
+			return null;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CursorUtil {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	// Keyset pagination needs a total order, so the id always closes the sort.
+	// Null keys would silently end the scroll, so only non-nullable properties can be sorted on.
+	public static Sort withTieBreaker(Sort sort, Class<?> type) {
+
+		for (Sort.Order order : sort) {
+
+			requireNonNullable(order.getProperty(), type);
+
+		}
+
+		return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+
+	}
+
+	public static ScrollPosition decode(String cursor, Class<?> type) {
+
+		if (cursor == null || cursor.isBlank()) {
+
+			return ScrollPosition.keyset();
+
+		}
+
+		try {
+
+			Map<String, Object> raw = mapper.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<LinkedHashMap<String, Object>>() {});
+			Map<String, Object> keys = new LinkedHashMap<>();
+
+			for (Map.Entry<String, Object> entry : raw.entrySet()) {
+
+				requireNonNullable(entry.getKey(), type);
+
+				Class<?> property = PropertyPath.from(entry.getKey(), type).getLeafProperty().getType();
+
+				// Dates travel as ISO instants so database timestamps keep their sub-millisecond part
+				Object value = Date.class.isAssignableFrom(property)
+						? Timestamp.from(Instant.parse(String.valueOf(entry.getValue())))
+						: mapper.convertValue(entry.getValue(), property);
+
+				keys.put(entry.getKey(), value);
+
+			}
+
+			return ScrollPosition.forward(keys);
+
+		} catch (IOException | RuntimeException e) {
+
+			throw new IllegalArgumentException("Invalid cursor", e);
+
+		}
+
+	}
+
+	public static String next(Window<?> window) {
+
+		if (window.isEmpty() || !window.hasNext() || !(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position)) {
+
+			return null;
+
+		}
+
+		Map<String, Object> keys = new LinkedHashMap<>();
+
+		position.getKeys().forEach((key, value) -> keys.put(key, value instanceof Date date ? toInstant(date).toString() : value));
+
+		try {
+
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(keys));
+
+		} catch (IOException e) {
+
+			throw new IllegalStateException(e);
+
+		}
+
+	}
+
+	private static void requireNonNullable(String path, Class<?> type) {
+
+		try {
+
+			for (PropertyPath segment : PropertyPath.from(path, type)) {
+
+				Field field = ReflectionUtils.findField(segment.getOwningType().getType(), segment.getSegment());
+
+				if (field == null || !isNonNullable(field)) {
+
+					throw new IllegalArgumentException("Cursor pagination cannot sort on the nullable property " + path);
+
+				}
+
+			}
+
+		} catch (PropertyReferenceException e) {
+
+			throw new IllegalArgumentException(e.getMessage(), e);
+
+		}
+
+	}
+
+	private static boolean isNonNullable(Field field) {
+
+		if (field.getType().isPrimitive() || field.isAnnotationPresent(Id.class)) {
+
+			return true;
+
+		}
+
+		Column column = field.getAnnotation(Column.class);
+		JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+		ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+
+		return (column != null && !column.nullable()) || (joinColumn != null && !joinColumn.nullable()) || (manyToOne != null && !manyToOne.optional());
+
+	}
+
+	private static Instant toInstant(Date date) {
+
+		return date instanceof Timestamp timestamp ? timestamp.toInstant() : date.toInstant();
+
+	}
+
+}
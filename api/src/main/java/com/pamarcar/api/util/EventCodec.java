@@ -0,0 +1,83 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.pamarcar.api.model.Event;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class EventCodec {
+
+	public static final String TYPE_HEADER = "event-type";
+	public static final String VERSION_HEADER = "schema-version";
+	public static final String CBOR = "application/cbor";
+
+	private final ObjectMapper mapper;
+	private final CBORMapper cbor;
+	private final boolean binary;
+
+	@Autowired
+	public EventCodec(ObjectMapper mapper, @Value("${messaging.event-format:json}") String format) {
+
+		if (!format.equals("json") && !format.equals("cbor")) {
+			throw new IllegalArgumentException("Unknown event format " + format);
+		}
+
+		this.mapper = mapper;
+		this.cbor = new CBORMapper();
+		this.binary = format.equals("cbor");
+
+	}
+
+	// Events are kept as JSON until published, the wire format is only chosen by the relay
+	public String serialize(Event event) throws JsonProcessingException {
+
+		return mapper.writeValueAsString(event);
+
+	}
+
+	public Message message(String type, Integer version, String payload) throws IOException {
+
+		MessageProperties properties = new MessageProperties();
+		byte[] body;
+
+		if (type == null) {
+
+			// Written before events were versioned
+			properties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+			body = payload.getBytes(StandardCharsets.UTF_8);
+
+		} else if (binary) {
+
+			properties.setContentType(CBOR);
+			body = cbor.writeValueAsBytes(mapper.readTree(payload));
+
+		} else {
+
+			properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+			properties.setContentEncoding(StandardCharsets.UTF_8.name());
+			body = payload.getBytes(StandardCharsets.UTF_8);
+
+		}
+
+		if (type != null) {
+
+			properties.setType(type);
+			properties.setHeader(TYPE_HEADER, type);
+			properties.setHeader(VERSION_HEADER, version);
+
+		}
+
+		return new Message(body, properties);
+
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+public class ExportWriter {
+
+	// Rows the driver fetches per round trip while streaming, instead of reading the whole result set.
+	// PostgreSQL only honours it with auto-commit off, so export streams are read inside a transaction
+	// that stays open, on the async request thread, until the last row is written.
+	public static final String FETCH_SIZE = "500";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final ObjectMapper mapper;
+
+	@Autowired
+	public ExportWriter(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	// Rows are written as they are read, nothing but the current one is kept in memory
+	public <R extends Record> long write(Stream<R> rows, Class<R> type, Format format, OutputStream out) throws IOException {
+
+		RecordComponent[] columns = type.getRecordComponents();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		long count = 0;
+
+		if (format == Format.CSV) {
+
+			for (int i = 0; i < columns.length; i++) {
+
+				writer.write(i == 0 ? "" : ",");
+				writer.write(columns[i].getName());
+
+			}
+
+			writer.write("\r\n");
+
+		}
+
+		Iterator<R> iterator = rows.iterator();
+
+		while (iterator.hasNext()) {
+
+			R row = iterator.next();
+
+			if (format == Format.NDJSON) {
+
+				writer.write(mapper.writeValueAsString(row));
+				writer.write("\n");
+
+			} else {
+
+				for (int i = 0; i < columns.length; i++) {
+
+					writer.write(i == 0 ? "" : ",");
+					writer.write(csv(value(columns[i], row)));
+
+				}
+
+				writer.write("\r\n");
+
+			}
+
+			count++;
+
+		}
+
+		writer.flush();
+
+		return count;
+
+	}
+
+	private static Object value(RecordComponent column, Record row) {
+
+		try {
+
+			return column.getAccessor().invoke(row);
+
+		} catch (IllegalAccessException | InvocationTargetException e) {
+
+			throw new IllegalStateException(e);
+
+		}
+
+	}
+
+	// RFC 4180 quoting, plus a leading quote on values a spreadsheet would run as a formula
+	private static String csv(Object value) {
+
+		if (value == null) {
+			return "";
+		}
+
+		String text = value instanceof Date date ? date.toInstant().toString() : value.toString();
+
+		if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+			text = "'" + text;
+		}
+
+		if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+			text = "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+
+		return text;
+
+	}
+
+	public enum Format {
+
+		NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+		CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+		private final MediaType mediaType;
+		private final String extension;
+
+		Format(MediaType mediaType, String extension) {
+			this.mediaType = mediaType;
+			this.extension = extension;
+		}
+
+		public static Format of(String value) {
+
+			for (Format format : values()) {
+
+				if (format.extension.equalsIgnoreCase(value)) {
+					return format;
+				}
+
+			}
+
+			return null;
+
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public String filename(String name) {
+			return name + "." + extension;
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.Key;
+import java.time.Instant;
+import java.util.*;
+
+public class KeyRing extends LocatorAdapter<Key> {
+
+	private final List<Entry> keys;
+	private final Map<String, Entry> byId;
+
+	public KeyRing(List<Entry> keys) {
+
+		if (keys.isEmpty()) {
+
+			throw new IllegalArgumentException("The key ring must contain at least one key");
+
+		}
+
+		this.keys = keys.stream().sorted(Comparator.comparingLong(Entry::notBefore).reversed()).toList();
+		this.byId = new HashMap<>();
+
+		for (Entry entry : this.keys) {
+
+			if (byId.put(entry.id(), entry) != null) {
+
+				throw new IllegalArgumentException("Duplicated key id " + entry.id());
+
+			}
+
+		}
+
+	}
+
+	// File format: {"keys": [{"kid": "...", "secret": "<base64, 64+ bytes>", "notBefore": "<ISO-8601>", "notAfter": "<ISO-8601, optional>"}]}
+	public static KeyRing load(Path path) throws IOException {
+
+		JsonNode root = new ObjectMapper().readTree(path.toFile());
+		List<Entry> keys = new ArrayList<>();
+
+		for (JsonNode node : root.path("keys")) {
+
+			String id = node.get("kid").textValue();
+			SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(node.get("secret").textValue()));
+			Instant notBefore = node.hasNonNull("notBefore") ? Instant.parse(node.get("notBefore").textValue()) : Instant.EPOCH;
+			Instant notAfter = node.hasNonNull("notAfter") ? Instant.parse(node.get("notAfter").textValue()) : Instant.MAX;
+
+			keys.add(new Entry(id, key, notBefore.toEpochMilli(), notAfter == Instant.MAX ? Long.MAX_VALUE : notAfter.toEpochMilli()));
+
+		}
+
+		return new KeyRing(keys);
+
+	}
+
+	// Single random key, only valid for the lifetime of this JVM
+	public static KeyRing generate() {
+
+		return new KeyRing(List.of(new Entry(UUID.randomUUID().toString(), Jwts.SIG.HS512.key().build(), 0, Long.MAX_VALUE)));
+
+	}
+
+	// Newest key already in its validity window; older keys keep verifying until their own notAfter
+	public Entry signingKey() {
+
+		long now = System.currentTimeMillis();
+
+		for (Entry entry : keys) {
+
+			if (entry.isValidAt(now)) {
+
+				return entry;
+
+			}
+
+		}
+
+		throw new IllegalStateException("No signing key is valid at " + Instant.ofEpochMilli(now));
+
+	}
+
+	@Override
+	protected Key locate(JwsHeader header) {
+
+		String id = header.getKeyId();
+
+		if (id == null) {
+
+			return null;
+
+		}
+
+		Entry entry = byId.get(id);
+
+		return entry == null || System.currentTimeMillis() >= entry.notAfter() ? null : entry.key();
+
+	}
+
+	public record Entry(String id, SecretKey key, long notBefore, long notAfter) {
+
+		boolean isValidAt(long instant) {
+			return notBefore <= instant && instant < notAfter;
+		}
+
+	}
+
+}
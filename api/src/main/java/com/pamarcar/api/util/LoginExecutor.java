@@ -0,0 +1,101 @@
+package com.pamarcar.api.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+
+@Component
+public class LoginExecutor {
+
+	private static final long RETRY_AFTER_SECONDS = 1;
+
+	private final ThreadPoolExecutor executor;
+	private final Timer hashTimer;
+
+	@Autowired
+	public LoginExecutor(MeterRegistry registry, @Value("${security.login.queue-capacity:32}") int queueCapacity) {
+
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		// Password hashing is CPU bound, so more threads than cores only adds latency
+		this.executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				Thread.ofPlatform().name("login-", 0).daemon(true).factory(),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+
+		this.hashTimer = Timer.builder("login.hash")
+				.description("Time spent verifying credentials on the login pool")
+				.publishPercentileHistogram()
+				.register(registry);
+
+		Gauge.builder("login.queue.depth", executor, pool -> pool.getQueue().size())
+				.description("Logins waiting for a free hashing thread")
+				.register(registry);
+
+		Gauge.builder("login.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Logins currently being verified")
+				.register(registry);
+
+	}
+
+	public Authentication authenticate(AuthenticationManager manager, Authentication request) throws AuthenticationException {
+
+		Future<Authentication> result;
+
+		try {
+
+			result = executor.submit(() -> hashTimer.recordCallable(() -> manager.authenticate(request)));
+
+		} catch (RejectedExecutionException e) {
+
+			throw new LoginRejectedException("Too many concurrent logins", RETRY_AFTER_SECONDS);
+
+		}
+
+		try {
+
+			return result.get();
+
+		} catch (ExecutionException e) {
+
+			if (e.getCause() instanceof RuntimeException cause) {
+
+				throw cause;
+
+			}
+
+			throw new AuthenticationServiceException(e.getCause().getMessage(), e.getCause());
+
+		} catch (InterruptedException e) {
+
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new AuthenticationServiceException("Interrupted while waiting for login", e);
+
+		}
+
+	}
+
+	@PreDestroy
+	public void shutdown() {
+
+		executor.shutdownNow();
+
+	}
+
+}
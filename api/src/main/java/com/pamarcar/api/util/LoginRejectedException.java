@@ -0,0 +1,18 @@
+package com.pamarcar.api.util;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class LoginRejectedException extends AuthenticationServiceException {
+
+	private final long retryAfter;
+
+	public LoginRejectedException(String message, long retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+
+}
@@ -1,22 +1,133 @@
 package com.pamarcar.api.util;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class MessageSender {
 
+	private static final Logger log = LoggerFactory.getLogger(MessageSender.class);
+
 	private final RabbitTemplate rabbitTemplate;
+	private final Semaphore window;
+	private final long timeout;
+	private final int republishAttempts;
 
-	public MessageSender(RabbitTemplate rabbitTemplate) {
+	@Autowired
+	public MessageSender(
+			RabbitTemplate rabbitTemplate,
+			@Value("${messaging.confirm-window:256}") int window,
+			@Value("${messaging.confirm-timeout:PT10S}") Duration timeout,
+			@Value("${messaging.republish-attempts:3}") int republishAttempts
+	) {
 
 		this.rabbitTemplate = rabbitTemplate;
+		this.window = new Semaphore(window);
+		this.timeout = timeout.toMillis();
+		this.republishAttempts = republishAttempts;
+
+	}
+
+	// Completes once the broker confirms the message, fails if it is returned, nacked too often or never confirmed
+	public CompletableFuture<Void> send(String queueName, Object message) {
+
+		return dispatch("", queueName, message);
+
+	}
+
+	public CompletableFuture<Void> publish(String exchange, Object message) {
+
+		return dispatch(exchange, "", message);
+
+	}
+
+	private CompletableFuture<Void> dispatch(String exchange, String routingKey, Object message) {
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+
+		try {
+
+			// Callers block here while the window of unconfirmed messages is full
+			if (!window.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+
+				result.completeExceptionally(new AmqpTimeoutException("Too many unconfirmed messages"));
+				return result;
+
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			result.completeExceptionally(e);
+			return result;
+
+		}
+
+		// Republishes keep the permit, it is only given back on the final outcome
+		result.whenComplete((ignored, error) -> window.release());
+
+		attempt(exchange, routingKey, message, 0, result);
+
+		return result;
 
 	}
 
-	public void send(String queueName, Object message) {
+	private void attempt(String exchange, String routingKey, Object message, int republished, CompletableFuture<Void> result) {
+
+		CorrelationData correlation = new CorrelationData();
+
+		try {
+
+			rabbitTemplate.convertAndSend(exchange, routingKey, message, correlation);
+
+		} catch (AmqpException e) {
+
+			result.completeExceptionally(e);
+			return;
+
+		}
+
+		// Confirms arrive on the connection thread, the outcome is handled off it so a republish cannot block it
+		correlation.getFuture()
+				.orTimeout(timeout, TimeUnit.MILLISECONDS)
+				.whenCompleteAsync((confirm, error) -> {
+
+					if (error != null) {
+
+						result.completeExceptionally(new AmqpTimeoutException("No publisher confirm for " + correlation.getId()));
+
+					} else if (correlation.getReturned() != null) {
+
+						result.completeExceptionally(new AmqpException("Message returned: " + correlation.getReturned().getReplyText()));
+
+					} else if (confirm.isAck()) {
+
+						result.complete(null);
+
+					} else if (republished < republishAttempts) {
+
+						log.warn("Message {} nacked ({}), republishing", correlation.getId(), confirm.getReason());
+						attempt(exchange, routingKey, message, republished + 1, result);
+
+					} else {
+
+						result.completeExceptionally(new AmqpException("Message nacked: " + confirm.getReason()));
+
+					}
 
-		rabbitTemplate.convertAndSend(queueName, message);
+				});
 
 	}
 
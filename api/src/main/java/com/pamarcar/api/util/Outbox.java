@@ -0,0 +1,39 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.pamarcar.api.model.Event;
+import com.pamarcar.api.model.OutboxMessage;
+import com.pamarcar.api.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+@Component
+public class Outbox {
+
+	private final OutboxMessageRepository messages;
+	private final EventCodec codec;
+
+	@Autowired
+	public Outbox(OutboxMessageRepository messages, EventCodec codec) {
+		this.messages = messages;
+		this.codec = codec;
+	}
+
+	// Only written together with the domain change, the relay publishes it once that transaction commits
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(String destination, Event event) throws JsonProcessingException {
+
+		messages.save(new OutboxMessage()
+				.setDestination(destination)
+				.setType(event.type())
+				.setVersion(event.version())
+				.setPayload(codec.serialize(event))
+				.setNextAttemptAt(new Date()));
+
+	}
+
+}
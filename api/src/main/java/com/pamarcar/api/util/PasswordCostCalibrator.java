@@ -0,0 +1,53 @@
+package com.pamarcar.api.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.UUID;
+
+public class PasswordCostCalibrator {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordCostCalibrator.class);
+
+	private static final int MIN_COST = 10;
+	private static final int MAX_COST = 16;
+
+	// Highest BCrypt cost whose verification on this CPU stays within the target latency
+	public static int calibrate(Duration target) {
+
+		String sample = UUID.randomUUID().toString();
+
+		// Warm up the hashing code so the first measured cost is not paying for the JIT
+		new BCryptPasswordEncoder(4).encode(sample);
+
+		int chosen = MIN_COST;
+
+		for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+
+			BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+
+			long start = System.nanoTime();
+			encoder.encode(sample);
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+			log.info("BCrypt cost {}: {} ms per hash, about {} logins per second per core", cost, elapsed.toMillis(), String.format("%.1f", 1_000_000_000.0 / Math.max(1, elapsed.toNanos())));
+
+			if (elapsed.compareTo(target) > 0) {
+
+				break;
+
+			}
+
+			chosen = cost;
+
+		}
+
+		log.info("Using BCrypt cost {} for a target of {} ms", chosen, target.toMillis());
+
+		return chosen;
+
+	}
+
+}
@@ -0,0 +1,236 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pamarcar.api.model.TokenAuthentication;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final int SLOTS = 4096;
+
+	// Login bodies are a few dozen bytes, larger ones are refused before they are buffered any further
+	private static final int MAXIMUM_LOGIN_BODY = 4096;
+
+	private final List<Rule> rules;
+	private final RequestMatcher login;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	public RateLimitFilter(List<Rule> rules, RequestMatcher login) {
+		this.rules = rules;
+		this.login = login;
+	}
+
+	// Format: "POST /login=10/PT1M;POST /registries=30/PT1M", capacity per ISO-8601 period
+	public static List<Rule> parse(String definition) {
+
+		List<Rule> rules = new ArrayList<>();
+
+		for (String entry : definition.split(";")) {
+
+			if (entry.isBlank()) {
+				continue;
+			}
+
+			String[] route = entry.trim().split("=", 2);
+			String[] target = route[0].trim().split("\\s+", 2);
+			String[] limit = route[1].trim().split("/", 2);
+
+			String method = target.length == 2 ? HttpMethod.valueOf(target[0]).name() : null;
+			String pattern = target.length == 2 ? target[1] : target[0];
+
+			rules.add(new Rule(new AntPathRequestMatcher(pattern, method), Integer.parseInt(limit[0]), Duration.parse(limit[1])));
+
+		}
+
+		return rules;
+
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+		for (Rule rule : rules) {
+
+			if (!rule.matcher().matches(request)) {
+				continue;
+			}
+
+			Object key = null;
+
+			if (login.matches(request)) {
+
+				LoginRequest replayable = new LoginRequest(request);
+
+				if (replayable.isTooLarge()) {
+
+					response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+					return;
+
+				}
+
+				request = replayable;
+				key = replayable.getEmail();
+
+			} else if (SecurityContextHolder.getContext().getAuthentication() instanceof TokenAuthentication authentication) {
+
+				key = authentication.getPrincipal().id();
+
+			}
+
+			// The principal goes first so a denied principal does not also spend a token of its address
+			TokenBuckets.Decision principal = key == null ? null : rule.principals().acquire(key);
+			TokenBuckets.Decision decision = principal != null && !principal.allowed() ? principal : rule.clients().acquire(request.getRemoteAddr());
+
+			if (principal != null && decision.allowed() && principal.remaining() < decision.remaining()) {
+				decision = principal;
+			}
+
+			response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+			response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+			response.setHeader("RateLimit-Reset", String.valueOf(seconds(decision.resetNanos())));
+
+			if (!decision.allowed()) {
+
+				response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds(decision.retryAfterNanos())));
+				response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+				return;
+
+			}
+
+			break;
+
+		}
+
+		chain.doFilter(request, response);
+
+	}
+
+	private static long seconds(long nanos) {
+
+		return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+	}
+
+	private class LoginRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+		private final String email;
+
+		LoginRequest(HttpServletRequest request) throws IOException {
+
+			super(request);
+
+			this.body = request.getInputStream().readNBytes(MAXIMUM_LOGIN_BODY + 1);
+			this.email = isTooLarge() ? null : parse(body);
+
+		}
+
+		boolean isTooLarge() {
+			return body.length > MAXIMUM_LOGIN_BODY;
+		}
+
+		String getEmail() {
+			return email;
+		}
+
+		// The whole body is in memory, so reads never block and async readers are served at once
+		@Override
+		public ServletInputStream getInputStream() {
+
+			ByteArrayInputStream replay = new ByteArrayInputStream(body);
+
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return replay.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return replay.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return replay.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+
+					try {
+
+						if (!isFinished()) {
+							listener.onDataAvailable();
+						}
+
+						listener.onAllDataRead();
+
+					} catch (IOException e) {
+
+						listener.onError(e);
+
+					}
+
+				}
+
+			};
+
+		}
+
+		private String parse(byte[] body) {
+
+			try {
+
+				JsonNode email = mapper.readTree(body).get("email");
+
+				return email == null || !email.isTextual() ? null : email.textValue().trim().toLowerCase(Locale.ROOT);
+
+			} catch (IOException e) {
+
+				// Malformed bodies are left for the authentication filter to reject
+				return null;
+
+			}
+
+		}
+
+	}
+
+	public record Rule(RequestMatcher matcher, TokenBuckets clients, TokenBuckets principals) {
+
+		public Rule(RequestMatcher matcher, int capacity, Duration period) {
+			this(matcher, new TokenBuckets(capacity, period, SLOTS), new TokenBuckets(capacity, period, SLOTS));
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.pamarcar.api.util;
+
+import com.pamarcar.api.configuration.RabbitMQConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReferenceDataCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+	// Query cache region for the by-name lookups of cached entities
+	public static final String QUERY_REGION = "reference-data";
+
+	private final SessionFactoryImplementor sessionFactory;
+	private final MessageSender messageSender;
+
+	@Autowired
+	public ReferenceDataCache(EntityManagerFactory entityManagerFactory, MessageSender messageSender) {
+
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.messageSender = messageSender;
+
+	}
+
+	// Hibernate keeps this node's cache in step with its own writes, the other nodes only learn about them from the broadcast
+	public void invalidate(Class<?> type) {
+
+		// Other nodes serve the old data until the region expires
+		messageSender.publish(RabbitMQConfiguration.CACHE_INVALIDATION_EXCHANGE, type.getName())
+				.whenComplete((ignored, error) -> {
+
+					if (error != null) {
+						log.warn("Could not broadcast cache invalidation for {}", type.getSimpleName(), error);
+					}
+
+				});
+
+	}
+
+	@RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+	public void receive(String entity) {
+
+		if (sessionFactory.getMappingMetamodel().findEntityDescriptor(entity) == null) {
+			return;
+		}
+
+		sessionFactory.getCache().evictEntityData(entity);
+		sessionFactory.getCache().evictQueryRegion(QUERY_REGION);
+
+	}
+
+}
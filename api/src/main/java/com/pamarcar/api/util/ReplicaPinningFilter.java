@@ -0,0 +1,81 @@
+package com.pamarcar.api.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Runs after the security chain: a user who just wrote keeps reading from the primary until the replicas caught up
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class ReplicaPinningFilter extends OncePerRequestFilter {
+
+	private static final Set<String> READS = Set.of("GET", "HEAD", "OPTIONS");
+
+	private final Cache<String, Boolean> writers;
+
+	@Autowired
+	public ReplicaPinningFilter(@Value("${datasource.replicas.pin-window:PT0S}") Duration window) {
+
+		this.writers = window.isZero() ? null : Caffeine.newBuilder()
+				.expireAfterWrite(window)
+				.build();
+
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+
+		return writers == null;
+
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+
+			chain.doFilter(request, response);
+			return;
+
+		}
+
+		String user = authentication.getName();
+		boolean read = READS.contains(request.getMethod());
+
+		ReplicaRouter.pin(!read || writers.getIfPresent(user) != null);
+
+		try {
+
+			chain.doFilter(request, response);
+
+		} finally {
+
+			ReplicaRouter.pin(false);
+
+			if (!read) {
+				writers.put(user, true);
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.pamarcar.api.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Read-only connections, handed out round-robin from the replicas that passed their last health check
+public class ReplicaRouter extends AbstractDataSource implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+
+	private static final int VALIDATION_TIMEOUT = 2;
+
+	private static final ThreadLocal<Boolean> pinned = ThreadLocal.withInitial(() -> false);
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ScheduledExecutorService checks;
+
+	// Checks run on their own thread, a replica that is down blocks them and not the shared scheduler
+	public ReplicaRouter(DataSource primary, List<DataSource> replicas, Duration interval) {
+
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.checks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health").daemon().factory());
+
+		if (!this.replicas.isEmpty()) {
+			checks.scheduleWithFixedDelay(this::check, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+
+	}
+
+	// While pinned, the current thread reads from the primary so it sees its own recent writes
+	public static void pin(boolean value) {
+
+		pinned.set(value);
+
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		if (!pinned.get() && !replicas.isEmpty()) {
+
+			int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+
+			for (int i = 0; i < replicas.size(); i++) {
+
+				Replica replica = replicas.get((start + i) % replicas.size());
+
+				if (!replica.healthy.get()) {
+					continue;
+				}
+
+				try {
+
+					return replica.dataSource.getConnection();
+
+				} catch (SQLException e) {
+
+					replica.markDown(e);
+
+				}
+
+			}
+
+		}
+
+		// No replica available, the primary serves reads as well
+		return primary.getConnection();
+
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+
+		throw new SQLException("Replica connections use the configured credentials");
+
+	}
+
+	public void check() {
+
+		for (Replica replica : replicas) {
+
+			try (Connection connection = replica.dataSource.getConnection()) {
+
+				if (connection.isValid(VALIDATION_TIMEOUT)) {
+					replica.markUp();
+				} else {
+					replica.markDown(null);
+				}
+
+			} catch (SQLException e) {
+
+				replica.markDown(e);
+
+			}
+
+		}
+
+	}
+
+	@Override
+	public void close() {
+
+		checks.shutdownNow();
+
+	}
+
+	private static final class Replica {
+
+		private final DataSource dataSource;
+		private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+		private Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		private void markUp() {
+
+			if (healthy.compareAndSet(false, true)) {
+				log.info("Replica {} is back", dataSource);
+			}
+
+		}
+
+		private void markDown(SQLException error) {
+
+			if (healthy.compareAndSet(true, false)) {
+				log.warn("Replica {} is down, reads fall back to the other replicas or the primary", dataSource, error);
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.pamarcar.api.util;
+
+import org.springframework.data.domain.*;
+
+public class SliceUtil {
+
+	// Offset positions point at the last row already seen, the first page has none
+	public static ScrollPosition position(Pageable request) {
+
+		return request.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(request.getOffset() - 1);
+
+	}
+
+	// A window of size n is read as n + 1 rows, the extra one only tells whether a next page exists
+	public static <T> Slice<T> of(Window<T> window, Pageable request) {
+
+		return new SliceImpl<>(window.getContent(), request, window.hasNext());
+
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.pamarcar.api.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Runs ahead of the security chain so authentication queries are counted too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+
+		return !log.isDebugEnabled();
+
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+		StatementCounter.reset();
+
+		try {
+
+			chain.doFilter(request, response);
+
+		} finally {
+
+			log.debug("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), StatementCounter.get());
+
+		}
+
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.pamarcar.api.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class StatementCounter implements StatementInspector {
+
+	private static final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+	public static void reset() {
+
+		count.get()[0] = 0;
+
+	}
+
+	public static int get() {
+
+		return count.get()[0];
+
+	}
+
+	@Override
+	public String inspect(String sql) {
+
+		count.get()[0]++;
+
+		return sql;
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.pamarcar.api.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size table of token buckets implemented with the generic cell rate algorithm.
+// Each key hashes to one slot holding a single "theoretical arrival time", updated with CAS,
+// so memory stays bounded no matter how many distinct keys are seen; colliding keys share a budget.
+public class TokenBuckets {
+
+	// One slot per 64 byte cache line so threads working on different keys do not false-share
+	private static final int STRIDE = 8;
+
+	private final AtomicLongArray slots;
+	private final int mask;
+	private final int capacity;
+	private final long interval;
+	private final long tolerance;
+	private final long origin = System.nanoTime();
+
+	public TokenBuckets(int capacity, Duration period, int size) {
+
+		if (capacity <= 0 || period.isNegative() || period.isZero() || Integer.bitCount(size) != 1) {
+
+			throw new IllegalArgumentException("Capacity and period must be positive and size a power of two");
+
+		}
+
+		this.slots = new AtomicLongArray(size * STRIDE);
+		this.mask = size - 1;
+		this.capacity = capacity;
+		this.interval = Math.max(1, period.toNanos() / capacity);
+		this.tolerance = interval * capacity;
+
+	}
+
+	public Decision acquire(Object key) {
+
+		int hash = key.hashCode();
+		int index = ((hash ^ (hash >>> 16)) & mask) * STRIDE;
+
+		while (true) {
+
+			long now = System.nanoTime() - origin;
+			long current = slots.get(index);
+			long next = Math.max(current, now) + interval;
+			long allowedAt = next - tolerance;
+
+			if (allowedAt > now) {
+
+				return new Decision(false, capacity, 0, current - now, allowedAt - now);
+
+			}
+
+			if (slots.compareAndSet(index, current, next)) {
+
+				return new Decision(true, capacity, (int) ((tolerance - (next - now)) / interval), next - now, 0);
+
+			}
+
+		}
+
+	}
+
+	public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+	}
+
+}
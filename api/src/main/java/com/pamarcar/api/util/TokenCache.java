@@ -0,0 +1,93 @@
+package com.pamarcar.api.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.pamarcar.api.model.TokenAuthentication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+
+@Component
+public class TokenCache {
+
+	private static final long MAXIMUM_SIZE = 10_000;
+
+	private final Cache<String, Entry> cache;
+
+	@Autowired
+	public TokenCache(MeterRegistry registry) {
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(MAXIMUM_SIZE)
+				// Entries live exactly as long as the token they were verified from
+				.expireAfter(new Expiry<String, Entry>() {
+
+					@Override
+					public long expireAfterCreate(String key, Entry entry, long currentTime) {
+						return Math.max(0, entry.expiration() - System.currentTimeMillis()) * 1_000_000;
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+						return expireAfterCreate(key, entry, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+
+				})
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(registry, cache, "jwt.tokens");
+
+	}
+
+	public TokenAuthentication get(String token) {
+
+		Entry entry = cache.getIfPresent(digest(token));
+
+		return entry == null ? null : entry.authentication();
+
+	}
+
+	public void put(String token, TokenAuthentication authentication, Date expiration) {
+
+		if (expiration == null) {
+			return;
+		}
+
+		cache.put(digest(token), new Entry(authentication, expiration.getTime()));
+
+	}
+
+	private static String digest(String token) {
+
+		try {
+
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+
+			return Base64.getEncoder().encodeToString(hash);
+
+		} catch (NoSuchAlgorithmException e) {
+
+			throw new IllegalStateException(e);
+
+		}
+
+	}
+
+	private record Entry(TokenAuthentication authentication, long expiration) {
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.pamarcar.api.util;
+
+import com.pamarcar.api.model.AuthenticatedUser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class TokenIssuer {
+
+	// Short lived, clients keep the session alive through the refresh endpoint
+	public static final long TOKEN_DURATION = Duration.ofMinutes(15).toMillis();
+
+	private final KeyRing keys;
+
+	@Autowired
+	public TokenIssuer(KeyRing keys) {
+		this.keys = keys;
+	}
+
+	public String issue(AuthenticatedUser user) {
+
+		long now = System.currentTimeMillis();
+
+		List<String> authorities = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+		KeyRing.Entry key = keys.signingKey();
+
+		return Jwts.builder()
+				.header().keyId(key.id()).and()
+				.setId(UUID.randomUUID().toString())
+				.setSubject(user.getUsername())
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + TOKEN_DURATION))
+				.claim("roles", authorities)
+				.claim("uid", user.getId())
+				.signWith(key.key())
+				.compact();
+
+	}
+
+}
@@ -0,0 +1,105 @@
+-- Schema as generated by Hibernate (ddl-auto=update) before migrations were introduced.
+-- Written with IF NOT EXISTS so it is a no-op on databases that already have it.
+
+CREATE TABLE IF NOT EXISTS role (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	name varchar(255) NOT NULL,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	email varchar(255) NOT NULL,
+	name varchar(255) NOT NULL,
+	password varchar(255) NOT NULL,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+	user_id bigint NOT NULL REFERENCES users (id),
+	roles_id bigint NOT NULL REFERENCES role (id)
+);
+
+CREATE TABLE IF NOT EXISTS groups (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS groups_users (
+	group_id bigint NOT NULL REFERENCES groups (id),
+	users_id bigint NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS device (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	identifier varchar(255) NOT NULL,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS apartment (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	name varchar(255) NOT NULL,
+	owner_id bigint NOT NULL UNIQUE REFERENCES users (id),
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS apartment_devices (
+	apartment_id bigint NOT NULL REFERENCES apartment (id),
+	devices_id bigint NOT NULL REFERENCES device (id)
+);
+
+CREATE TABLE IF NOT EXISTS platform (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	name varchar(255) NOT NULL,
+	app_commission numeric(5, 2) NOT NULL,
+	bank_commission numeric(5, 2) NOT NULL,
+	vat numeric(5, 2) NOT NULL,
+	discount_7_days numeric(5, 2) NOT NULL,
+	discount_28_days numeric(5, 2) NOT NULL,
+	comment text,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	security_code varchar(36) NOT NULL UNIQUE,
+	start_date timestamp(6) NOT NULL,
+	end_date timestamp(6) NOT NULL,
+	app_commission numeric(5, 2) NOT NULL,
+	comment text,
+	platform_number varchar(255) NOT NULL UNIQUE,
+	platform_id bigint NOT NULL REFERENCES platform (id),
+	apartment_id bigint NOT NULL UNIQUE REFERENCES apartment (id),
+	user_id bigint NOT NULL REFERENCES users (id),
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS traveler_registry (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	booking_id bigint NOT NULL REFERENCES booking (id),
+	document_type varchar(255) NOT NULL CHECK (document_type IN ('ID', 'PASSPORT')),
+	document_number varchar(255) NOT NULL,
+	document_issued_date timestamp(6) NOT NULL,
+	document_support varchar(255) NOT NULL,
+	first_name varchar(255) NOT NULL,
+	last_name varchar(255) NOT NULL,
+	birth_date timestamp(6) NOT NULL,
+	gender varchar(255) NOT NULL CHECK (gender IN ('MALE', 'FEMALE', 'OTHER')),
+	nationality varchar(255) NOT NULL,
+	phone varchar(255) NOT NULL,
+	email varchar(255) NOT NULL,
+	city varchar(255) NOT NULL,
+	province varchar(255) NOT NULL,
+	country varchar(255) NOT NULL,
+	postal_code varchar(255) NOT NULL,
+	signature oid NOT NULL,
+	created_at timestamp(6) NOT NULL,
+	updated_at timestamp(6) NOT NULL
+);
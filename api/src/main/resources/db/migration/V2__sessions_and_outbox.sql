@@ -0,0 +1,46 @@
+-- Tables and columns added to the entities while the schema was still managed by ddl-auto=update
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role_version integer DEFAULT 0 NOT NULL;
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS guests integer;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS registrations integer DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	token_hash varchar(64) NOT NULL,
+	family varchar(36) NOT NULL,
+	user_id bigint NOT NULL REFERENCES users (id),
+	expires_at timestamp(6) NOT NULL,
+	session_expires_at timestamp(6) NOT NULL,
+	used_at timestamp(6),
+	revoked_at timestamp(6),
+	created_at timestamp(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_token_hash_idx ON refresh_token (token_hash);
+CREATE INDEX IF NOT EXISTS refresh_token_family_idx ON refresh_token (family);
+
+CREATE TABLE IF NOT EXISTS revocation (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	token_id varchar(36),
+	user_id bigint,
+	issued_before timestamp(6),
+	expires_at timestamp(6) NOT NULL,
+	created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_message (
+	id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	destination varchar(255) NOT NULL,
+	payload text NOT NULL,
+	attempts integer NOT NULL,
+	next_attempt_at timestamp(6) NOT NULL,
+	sent_at timestamp(6),
+	last_error varchar(1000),
+	created_at timestamp(6) NOT NULL
+);
+
+ALTER TABLE outbox_message ADD COLUMN IF NOT EXISTS event_type varchar(100);
+ALTER TABLE outbox_message ADD COLUMN IF NOT EXISTS schema_version integer;
+
+CREATE INDEX IF NOT EXISTS outbox_message_pending ON outbox_message (sent_at, next_attempt_at, id);
@@ -0,0 +1,21 @@
+-- Traveler registry ids come from a pooled sequence and signatures live in the content store
+
+CREATE SEQUENCE IF NOT EXISTS traveler_registry_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE traveler_registry ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Start the sequence above the ids handed out by the identity column
+SELECT setval('traveler_registry_seq', t.m)
+FROM (SELECT MAX(id) AS m FROM traveler_registry) t
+WHERE t.m > (SELECT last_value FROM traveler_registry_seq);
+
+ALTER TABLE traveler_registry ADD COLUMN IF NOT EXISTS signature_hash varchar(64);
+
+-- Images still in the legacy column are moved to the content store by V6__Move_signatures_to_content_store
+ALTER TABLE traveler_registry ALTER COLUMN signature DROP NOT NULL;
+
+-- Bookings created before the counter existed start from their current number of registries
+UPDATE booking b
+SET registrations = c.n
+FROM (SELECT booking_id, COUNT(*) AS n FROM traveler_registry GROUP BY booking_id) c
+WHERE c.booking_id = b.id AND b.registrations = 0;
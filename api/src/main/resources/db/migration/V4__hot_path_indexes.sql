@@ -0,0 +1,14 @@
+-- One index per repository lookup that had to scan its table
+
+-- TravelerRegistryService registration counters and the booking foreign key
+CREATE INDEX IF NOT EXISTS traveler_registry_booking_idx ON traveler_registry (booking_id);
+
+-- UserRepository.findByEmail, on every login and refresh
+CREATE INDEX IF NOT EXISTS users_email_idx ON users (email);
+
+-- PlatformRepository.findByName and RoleRepository.findByName
+CREATE INDEX IF NOT EXISTS platform_name_idx ON platform (name);
+CREATE INDEX IF NOT EXISTS role_name_idx ON role (name);
+
+-- RevocationRepository.findAllByExpiresAtAfter and deleteExpired
+CREATE INDEX IF NOT EXISTS revocation_expires_at_idx ON revocation (expires_at);
@@ -0,0 +1,2 @@
+-- Role changes are enforced by revoking the user's sessions, tokens no longer carry a role version
+ALTER TABLE users DROP COLUMN IF EXISTS role_version;
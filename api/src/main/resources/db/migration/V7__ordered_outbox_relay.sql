@@ -0,0 +1,4 @@
+-- The relay reads the oldest unsent rows in id order, including the ones still backing off
+DROP INDEX IF EXISTS outbox_message_pending;
+
+CREATE INDEX IF NOT EXISTS outbox_message_pending ON outbox_message (sent_at, id);
@@ -0,0 +1,2 @@
+-- RefreshTokenRepository.revokeUser, when all sessions of a user are closed
+CREATE INDEX IF NOT EXISTS refresh_token_user_idx ON refresh_token (user_id);
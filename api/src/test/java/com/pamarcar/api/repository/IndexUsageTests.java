@@ -0,0 +1,51 @@
+package com.pamarcar.api.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the indexes of the migrations: with sequential scans priced out, the planner only falls back to one
+// when no index can serve the lookup. Runs against the same database ApiApplicationTests boots with.
+@SpringBootTest
+@Transactional
+class IndexUsageTests {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			// UserRepository.findByEmail
+			"SELECT * FROM users WHERE email = 'guest@example.com'",
+			// PlatformRepository.findByName and RoleRepository.findByName
+			"SELECT * FROM platform WHERE name = 'platform'",
+			"SELECT * FROM role WHERE name = 'ADMIN'",
+			// RevocationRepository.findAllByExpiresAtAfter and deleteExpired
+			"SELECT * FROM revocation WHERE expires_at > now()",
+			"DELETE FROM revocation WHERE expires_at < now()",
+			// TravelerRegistryRepository by booking
+			"SELECT * FROM traveler_registry WHERE booking_id = 1",
+			// RefreshTokenRepository.findByTokenHash, revokeFamily and revokeUser
+			"SELECT * FROM refresh_token WHERE token_hash = 'hash'",
+			"UPDATE refresh_token SET revoked_at = now() WHERE family = 'family' AND revoked_at IS NULL",
+			"UPDATE refresh_token SET revoked_at = now() WHERE user_id = 1 AND revoked_at IS NULL",
+			// OutboxMessageRepository.findPending
+			"SELECT * FROM outbox_message WHERE sent_at IS NULL ORDER BY id LIMIT 100"
+	})
+	void lookupUsesAnIndex(String query) {
+
+		// Local to the test transaction, which is rolled back
+		jdbc.execute("SET LOCAL enable_seqscan = off");
+
+		String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + query, String.class));
+
+		assertThat(plan).as(query).doesNotContain("Seq Scan");
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.pamarcar.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pamarcar.api.model.OutboxMessage;
+import com.pamarcar.api.repository.OutboxMessageRepository;
+import com.pamarcar.api.util.EventCodec;
+import com.pamarcar.api.util.MessageSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTests {
+
+	private final List<OutboxMessage> table = new ArrayList<>();
+	private final List<String> published = new ArrayList<>();
+	private boolean brokerDown;
+
+	private OutboxRelay relay;
+
+	@BeforeEach
+	void setUp() throws Exception {
+
+		OutboxMessageRepository messages = mock(OutboxMessageRepository.class);
+		MessageSender messageSender = mock(MessageSender.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+		// An in-memory outbox table, read the way the native query reads it
+		when(messages.tryLockRelay()).thenReturn(true);
+		when(messages.findPending(anyInt())).thenAnswer(invocation -> table.stream()
+				.filter(message -> message.getSentAt() == null)
+				.sorted(Comparator.comparing(OutboxMessage::getId))
+				.limit(invocation.<Integer>getArgument(0))
+				.toList());
+
+		when(messageSender.send(anyString(), any())).thenAnswer(invocation -> {
+
+			published.add(invocation.getArgument(0));
+
+			return brokerDown ? CompletableFuture.failedFuture(new AmqpTimeoutException("No publisher confirm")) : CompletableFuture.completedFuture(null);
+
+		});
+
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		relay = new OutboxRelay(messages, messageSender, new EventCodec(new ObjectMapper(), "json"), transactionManager, new SimpleMeterRegistry(), 100);
+
+	}
+
+	@Test
+	void newerMessagesWaitBehindAFailedConfirm() {
+
+		OutboxMessage first = enqueue(1L, "first");
+
+		brokerDown = true;
+		relay.relay();
+
+		assertThat(published).containsExactly("first");
+		assertThat(first.getSentAt()).isNull();
+		assertThat(first.getAttempts()).isEqualTo(1);
+		assertThat(first.getNextAttemptAt()).isInTheFuture();
+
+		// The broker is back, but the first message is still backing off
+		brokerDown = false;
+		OutboxMessage second = enqueue(2L, "second");
+
+		relay.relay();
+
+		assertThat(published).containsExactly("first");
+		assertThat(second.getSentAt()).isNull();
+
+		// Once its retry is due, both leave in the order they were enqueued
+		first.setNextAttemptAt(new Date(System.currentTimeMillis() - 1));
+
+		relay.relay();
+
+		assertThat(published).containsExactly("first", "first", "second");
+		assertThat(first.getSentAt()).isNotNull();
+		assertThat(second.getSentAt()).isNotNull();
+
+	}
+
+	@Test
+	void messagesAfterAFailureInTheSameBatchStayPending() {
+
+		OutboxMessage first = enqueue(1L, "first");
+		OutboxMessage second = enqueue(2L, "second");
+
+		brokerDown = true;
+		relay.relay();
+
+		assertThat(first.getSentAt()).isNull();
+		assertThat(second.getSentAt()).isNull();
+		assertThat(second.getAttempts()).isZero();
+
+		brokerDown = false;
+		relay.relay();
+
+		// Nothing is sent while the head of the outbox backs off
+		assertThat(published).containsExactly("first", "second");
+		assertThat(second.getSentAt()).isNull();
+
+	}
+
+	private OutboxMessage enqueue(Long id, String destination) {
+
+		OutboxMessage message = new OutboxMessage()
+				.setId(id)
+				.setDestination(destination)
+				.setPayload("{}")
+				.setNextAttemptAt(new Date(System.currentTimeMillis() - 1));
+
+		table.add(message);
+
+		return message;
+
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.pamarcar.api.service;
+
+import com.pamarcar.api.model.TokenAuthentication;
+import com.pamarcar.api.model.TokenPrincipal;
+import com.pamarcar.api.util.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+// Authorization is answered from the token claims, so deciding it must not reach the database
+@SpringBootTest
+class SecurityServiceTests {
+
+	private static final long USER_ID = 7;
+
+	@Autowired
+	private Guarded guarded;
+
+	@BeforeEach
+	void authenticate() {
+
+		TokenPrincipal principal = new TokenPrincipal(USER_ID, "guest@example.com", "token", 0, Long.MAX_VALUE);
+
+		SecurityContextHolder.getContext().setAuthentication(new TokenAuthentication(principal, AuthorityUtils.createAuthorityList("USER")));
+		StatementCounter.reset();
+
+	}
+
+	@AfterEach
+	void clear() {
+
+		SecurityContextHolder.clearContext();
+
+	}
+
+	@Test
+	void selfChecksIssueNoStatements() {
+
+		assertThat(guarded.one(USER_ID)).isTrue();
+		assertThat(guarded.many(List.of(USER_ID, USER_ID))).isTrue();
+
+		assertThat(StatementCounter.get()).isZero();
+
+	}
+
+	@Test
+	void deniedSelfChecksIssueNoStatements() {
+
+		assertThatExceptionOfType(AccessDeniedException.class).isThrownBy(() -> guarded.one(USER_ID + 1));
+		assertThatExceptionOfType(AccessDeniedException.class).isThrownBy(() -> guarded.many(List.of(USER_ID, USER_ID + 1)));
+		assertThatExceptionOfType(AccessDeniedException.class).isThrownBy(() -> guarded.many(List.of()));
+
+		assertThat(StatementCounter.get()).isZero();
+
+	}
+
+	@TestConfiguration
+	static class GuardedConfiguration {
+
+		@Bean
+		Guarded guarded() {
+			return new Guarded();
+		}
+
+	}
+
+	// The same expressions the user endpoints are guarded with
+	static class Guarded {
+
+		@PreAuthorize("hasAuthority('ADMIN') or @securityService.isSelf(#id, principal)")
+		public boolean one(Long id) {
+			return true;
+		}
+
+		@PreAuthorize("hasAuthority('ADMIN') or @securityService.isSelfAll(#ids, principal)")
+		public boolean many(List<Long> ids) {
+			return true;
+		}
+
+	}
+
+}
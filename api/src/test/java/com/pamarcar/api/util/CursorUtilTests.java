@@ -0,0 +1,84 @@
+package com.pamarcar.api.util;
+
+import com.pamarcar.api.model.Booking;
+import com.pamarcar.api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CursorUtilTests {
+
+	@Test
+	void nextCursorDecodesToTheSamePosition() {
+
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("createdAt", Timestamp.from(Instant.parse("2025-03-01T10:15:30.123456Z")));
+		keys.put("email", "guest@example.com");
+		keys.put("id", 42L);
+
+		ScrollPosition position = ScrollPosition.forward(keys);
+		Window<String> window = Window.from(List.of("last"), index -> position, true);
+
+		String cursor = CursorUtil.next(window);
+
+		assertThat(cursor).isNotNull();
+		assertThat(CursorUtil.decode(cursor, User.class)).isEqualTo(position);
+
+	}
+
+	@Test
+	void emptyCursorStartsFromTheBeginning() {
+
+		assertThat(CursorUtil.decode(null, User.class)).isEqualTo(ScrollPosition.keyset());
+		assertThat(CursorUtil.decode("", User.class)).isEqualTo(ScrollPosition.keyset());
+
+	}
+
+	@Test
+	void lastWindowHasNoCursor() {
+
+		Window<String> window = Window.from(List.of("last"), index -> ScrollPosition.forward(Map.of("id", 1L)), false);
+
+		assertThat(CursorUtil.next(window)).isNull();
+
+	}
+
+	@Test
+	void tieBreakerClosesTheSort() {
+
+		assertThat(CursorUtil.withTieBreaker(Sort.by("email"), User.class)).isEqualTo(Sort.by("email").and(Sort.by("id")));
+		assertThat(CursorUtil.withTieBreaker(Sort.by(Sort.Order.desc("id")), User.class)).isEqualTo(Sort.by(Sort.Order.desc("id")));
+		assertThat(CursorUtil.withTieBreaker(Sort.by("user.email"), Booking.class)).isEqualTo(Sort.by("user.email").and(Sort.by("id")));
+
+	}
+
+	@Test
+	void nullablePropertiesAreRejected() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> CursorUtil.withTieBreaker(Sort.by("comment"), Booking.class));
+		assertThatIllegalArgumentException().isThrownBy(() -> CursorUtil.withTieBreaker(Sort.by("missing"), Booking.class));
+
+	}
+
+	@Test
+	void tamperedCursorsAreRejected() {
+
+		String nullable = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"comment\":\"a\",\"id\":1}".getBytes());
+
+		assertThatIllegalArgumentException().isThrownBy(() -> CursorUtil.decode(nullable, Booking.class));
+		assertThatIllegalArgumentException().isThrownBy(() -> CursorUtil.decode("not a cursor", Booking.class));
+
+	}
+
+}
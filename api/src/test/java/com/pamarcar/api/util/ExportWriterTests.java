@@ -0,0 +1,132 @@
+package com.pamarcar.api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTests {
+
+	private static final long ROWS = 1_000_000;
+
+	// Shared by every row, so generating them costs nothing while the output is far larger than the test heap
+	private static final String NOTE = "x".repeat(512);
+
+	private final ExportWriter writer = new ExportWriter(new ObjectMapper());
+
+	record Row(Long id, String name, Date createdAt, String note) {
+	}
+
+	record Cell(Object value) {
+	}
+
+	@Test
+	void streamsMoreRowsThanFitInMemory() throws Exception {
+
+		for (ExportWriter.Format format : ExportWriter.Format.values()) {
+
+			CountingOutputStream out = new CountingOutputStream();
+			Date createdAt = Date.from(Instant.parse("2025-03-01T10:15:30Z"));
+			Stream<Row> rows = LongStream.rangeClosed(1, ROWS).mapToObj(id -> new Row(id, "guest", createdAt, NOTE));
+
+			long written = writer.write(rows, Row.class, format, out);
+
+			assertThat(written).as(format.name()).isEqualTo(ROWS);
+			assertThat(out.count).as(format.name()).isGreaterThan(ROWS * NOTE.length());
+
+		}
+
+	}
+
+	@Test
+	void csvQuotesSeparatorsQuotesAndLineBreaks() throws Exception {
+
+		assertThat(csv("plain")).isEqualTo("plain");
+		assertThat(csv("a,b")).isEqualTo("\"a,b\"");
+		assertThat(csv("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+		assertThat(csv("two\nlines")).isEqualTo("\"two\nlines\"");
+		assertThat(csv("two\r\nlines")).isEqualTo("\"two\r\nlines\"");
+		assertThat(csv("")).isEmpty();
+		assertThat(csv(null)).isEmpty();
+
+	}
+
+	@Test
+	void csvDefusesFormulas() throws Exception {
+
+		assertThat(csv("=SUM(A1:A9)")).isEqualTo("'=SUM(A1:A9)");
+		assertThat(csv("+34 600 000 000")).isEqualTo("'+34 600 000 000");
+		assertThat(csv("-1")).isEqualTo("'-1");
+		assertThat(csv("@cmd")).isEqualTo("'@cmd");
+		assertThat(csv("=1,2")).isEqualTo("\"'=1,2\"");
+		assertThat(csv(-1)).isEqualTo("-1");
+
+	}
+
+	@Test
+	void csvWritesDatesAsInstants() throws Exception {
+
+		assertThat(csv(Date.from(Instant.parse("2025-03-01T10:15:30.250Z")))).isEqualTo("2025-03-01T10:15:30.250Z");
+
+	}
+
+	@Test
+	void csvStartsWithAHeader() throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		writer.write(Stream.of(new Row(1L, "guest", null, "")), Row.class, ExportWriter.Format.CSV, out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,name,createdAt,note\r\n1,guest,,\r\n");
+
+	}
+
+	@Test
+	void ndjsonWritesOneObjectPerLine() throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		writer.write(Stream.of(new Row(1L, "a", null, "b"), new Row(2L, "c", null, "d")), Row.class, ExportWriter.Format.NDJSON, out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1,\"name\":\"a\",\"createdAt\":null,\"note\":\"b\"}\n{\"id\":2,\"name\":\"c\",\"createdAt\":null,\"note\":\"d\"}\n");
+
+	}
+
+	// The single value of a one column export, without the header and the line break
+	private String csv(Object value) throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		writer.write(Stream.of(new Cell(value)), Cell.class, ExportWriter.Format.CSV, out);
+
+		String text = out.toString(StandardCharsets.UTF_8);
+
+		return text.substring("value\r\n".length(), text.length() - "\r\n".length());
+
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.pamarcar.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketsTests {
+
+	private static final int THREADS = 32;
+	private static final int ATTEMPTS = 20_000;
+	private static final int CAPACITY = 1_000;
+
+	// Long enough that no token is refilled while the test runs
+	private static final Duration PERIOD = Duration.ofDays(1);
+
+	@Test
+	void sharedKeyNeverGrantsMoreThanCapacity() throws Exception {
+
+		TokenBuckets buckets = new TokenBuckets(CAPACITY, PERIOD, 64);
+		AtomicLong allowed = new AtomicLong();
+		AtomicLong denied = new AtomicLong();
+
+		race(attempt -> {
+
+			TokenBuckets.Decision decision = buckets.acquire("client");
+
+			if (decision.allowed()) {
+
+				allowed.incrementAndGet();
+
+			} else {
+
+				assertThat(decision.remaining()).isZero();
+				assertThat(decision.retryAfterNanos()).isPositive();
+				denied.incrementAndGet();
+
+			}
+
+		});
+
+		assertThat(allowed.get()).isEqualTo(CAPACITY);
+		assertThat(denied.get()).isEqualTo((long) THREADS * ATTEMPTS - CAPACITY);
+
+	}
+
+	@Test
+	void distinctSlotsKeepSeparateBudgets() throws Exception {
+
+		int keys = 64;
+		TokenBuckets buckets = new TokenBuckets(CAPACITY, PERIOD, keys);
+		AtomicIntegerArray allowed = new AtomicIntegerArray(keys);
+
+		// Small integers hash to themselves, so every key lands in its own slot
+		race(attempt -> {
+
+			int key = attempt % keys;
+
+			if (buckets.acquire(key).allowed()) {
+				allowed.incrementAndGet(key);
+			}
+
+		});
+
+		for (int key = 0; key < keys; key++) {
+
+			assertThat(allowed.get(key)).as("key %d", key).isEqualTo(Math.min(CAPACITY, THREADS * ATTEMPTS / keys));
+
+		}
+
+	}
+
+	@Test
+	void distinctKeysDoNotContend() throws Exception {
+
+		// Large enough that every attempt is granted and so writes its slot
+		TokenBuckets buckets = new TokenBuckets(1_000_000_000, PERIOD, THREADS);
+
+		// Warm up so both runs measure compiled code
+		throughput(buckets, 1);
+		throughput(buckets, THREADS);
+
+		double single = throughput(buckets, 1);
+		double parallel = throughput(buckets, THREADS);
+
+		// Slots sit on separate cache lines, so adding threads must not make the table slower overall.
+		// Contended CAS on shared lines typically drops aggregate throughput well below a single thread.
+		assertThat(parallel).as("ops/s at %d threads vs %.0f at 1", THREADS, single).isGreaterThan(single * 0.5);
+
+	}
+
+	@Test
+	void remainingCountsDownToZero() {
+
+		TokenBuckets buckets = new TokenBuckets(3, PERIOD, 1);
+
+		assertThat(buckets.acquire("client").remaining()).isEqualTo(2);
+		assertThat(buckets.acquire("client").remaining()).isEqualTo(1);
+		assertThat(buckets.acquire("client").remaining()).isEqualTo(0);
+		assertThat(buckets.acquire("client").allowed()).isFalse();
+
+	}
+
+	// Acquisitions per second across all threads, each thread on its own key and slot
+	private static double throughput(TokenBuckets buckets, int threads) throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+
+		try {
+
+			for (int thread = 0; thread < threads; thread++) {
+
+				Integer key = thread;
+
+				workers.add(executor.submit(() -> {
+
+					start.await();
+
+					for (int i = 0; i < ATTEMPTS * 10; i++) {
+						buckets.acquire(key);
+					}
+
+					return null;
+
+				}));
+
+			}
+
+			long began = System.nanoTime();
+			start.countDown();
+
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+
+			return (double) threads * ATTEMPTS * 10 / (System.nanoTime() - began) * TimeUnit.SECONDS.toNanos(1);
+
+		} finally {
+
+			executor.shutdownNow();
+
+		}
+
+	}
+
+	private static void race(IntConsumer attempt) throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+
+		try {
+
+			for (int thread = 0; thread < THREADS; thread++) {
+
+				workers.add(executor.submit(() -> {
+
+					start.await();
+
+					for (int i = 0; i < ATTEMPTS; i++) {
+						attempt.accept(i);
+					}
+
+					return null;
+
+				}));
+
+			}
+
+			start.countDown();
+
+			// Rethrows assertion failures raised on the worker threads
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+
+		} finally {
+
+			executor.shutdownNow();
+
+		}
+
+	}
+
+}